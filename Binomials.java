@@ -0,0 +1,195 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+*   Binomial coefficients C(n, k) without full factorials.
+*   Small results use the multiplicative formula in a long. Exact large
+*   results are built from their prime factorization: by Legendre's formula
+*   the exponent of p in C(n, k) is the number of carries when adding k and
+*   n - k in base p, so only primes up to n are involved and the prime powers
+*   are multiplied as a product tree by Products. Residues modulo a prime
+*   use Lucas' theorem over a factorial table.
+*/
+class Binomials {
+
+    /**
+    *   Exact C(n, k) in a long. Uses C(n, i) = C(n, i - 1) * (n - k + i) / i,
+    *   dividing out common factors first so nothing overflows unless the
+    *   answer does.
+    *   @param n A non-negative integer.
+    *   @param k Number of items chosen.
+    *   @return C(n, k), or 0 when k is negative or greater than n.
+    *   @throws ArithmeticException if C(n, k) does not fit in a long.
+    */
+    protected static long longBinomial(long n, long k) {
+        checkNonNegative(n);
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        k = Math.min(k, n - k);
+
+        // After step i, result holds C(n - k + i, i), which only grows with i.
+        long result = 1;
+        for (long i = 1; i <= k; i++) {
+            long g = Factorizer.gcd(result, i);
+            result = Math.multiplyExact(result / g, (n - k + i) / (i / g));
+        }
+        return result;
+    }
+
+    /**
+    *   Exact C(n, k), computed on the common ForkJoinPool.
+    *   @param n A non-negative integer.
+    *   @param k Number of items chosen.
+    *   @return C(n, k), or 0 when k is negative or greater than n.
+    */
+    protected static BigInteger binomial(int n, int k) {
+        return binomial(n, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+    *   @param n A non-negative integer.
+    *   @param k Number of items chosen.
+    *   @param pool Pool that multiplies large product trees.
+    *   @return C(n, k), or 0 when k is negative or greater than n.
+    */
+    protected static BigInteger binomial(int n, int k, ForkJoinPool pool) {
+        checkNonNegative(n);
+        if (k < 0 || k > n) {
+            return BigInteger.ZERO;
+        }
+        k = Math.min(k, n - k);
+
+        try {
+            return BigInteger.valueOf(longBinomial(n, k));
+        } catch (ArithmeticException e) {
+            // Too large for a long; fall through to the prime factorization.
+        }
+
+        int[] primes = PrimeOracle.getInstance().primesUpTo(n);
+        long[] factors = new long[primes.length];
+        int count = 0;
+        int m = n - k;
+
+        for (int p : primes) {
+            if (p > m) {
+                factors[count++] = p; // Divides n! but neither k! nor m!: exponent 1.
+                continue;
+            }
+            if ((long) p * p > n) {
+                // Exponent 1 exactly when k mod p + m mod p carries.
+                if (k % p > n % p) {
+                    factors[count++] = p;
+                }
+                continue;
+            }
+
+            // Multiply the prime powers into longs while they fit.
+            long power = 1;
+            for (long q = p; q <= n; q *= p) {
+                int exponent = (int) (n / q - k / q - m / q);
+                for (int e = 0; e < exponent; e++) {
+                    if (power > Long.MAX_VALUE / p) {
+                        factors[count++] = power;
+                        power = 1;
+                    }
+                    power *= p;
+                }
+            }
+            if (power > 1) {
+                factors[count++] = power;
+            }
+        }
+
+        return Products.product(factors, 0, count, pool);
+    }
+
+    /**
+    *   Computes C(n, k) modulo the prime p, building a table for p first.
+    *   For many queries with the same p, keep a Modular instead.
+    *   @param n A non-negative integer.
+    *   @param k Number of items chosen.
+    *   @param p A prime below 2^31.
+    *   @return C(n, k) mod p.
+    */
+    protected static int binomialMod(long n, long k, int p) {
+        return new Modular(p).binomial(n, k);
+    }
+
+    private static void checkNonNegative(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + n);
+        }
+    }
+
+    /**
+    *   Binomial coefficients modulo a fixed prime p. The factorials 0! to
+    *   (p - 1)! and their inverses mod p are tabulated once; by Lucas'
+    *   theorem C(n, k) mod p is then the product of C(n_i, k_i) over the
+    *   base p digits of n and k, each a few table lookups.
+    */
+    protected static class Modular {
+
+        private final int p;
+        private final int[] factorials;
+        private final int[] inverses; // inverses[i] = (i!)^-1 mod p.
+
+        /**
+        *   @param p A prime below 2^31. The tables hold p ints each.
+        */
+        Modular(int p) {
+            if (!Utilities.isPrime(p)) {
+                throw new IllegalArgumentException("Modulus must be prime: " + p);
+            }
+            this.p = p;
+            this.factorials = new int[p];
+            this.inverses = new int[p];
+
+            factorials[0] = 1;
+            for (int i = 1; i < p; i++) {
+                factorials[i] = (int) ((long) factorials[i - 1] * i % p);
+            }
+
+            // Fermat: x^(p - 2) is the inverse of x, then walk back down.
+            inverses[p - 1] = (int) Utilities.powMod(factorials[p - 1], p - 2, p);
+            for (int i = p - 1; i > 0; i--) {
+                inverses[i - 1] = (int) ((long) inverses[i] * i % p);
+            }
+        }
+
+        /**
+        *   @return The prime modulus.
+        */
+        protected int modulus() {
+            return p;
+        }
+
+        /**
+        *   @param n A non-negative integer.
+        *   @param k Number of items chosen.
+        *   @return C(n, k) mod p, 0 when k is negative or greater than n.
+        */
+        protected int binomial(long n, long k) {
+            checkNonNegative(n);
+            if (k < 0 || k > n) {
+                return 0;
+            }
+
+            long result = 1;
+            while (k > 0 && result != 0) {
+                int ni = (int) (n % p);
+                int ki = (int) (k % p);
+                if (ki > ni) {
+                    return 0; // A borrow in base p: p divides C(n, k).
+                }
+                result = result * factorials[ni] % p * inverses[ki] % p * inverses[ni - ki] % p;
+                n /= p;
+                k /= p;
+            }
+            return (int) result;
+        }
+    }
+
+}
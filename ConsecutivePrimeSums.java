@@ -0,0 +1,270 @@
+package mathUtilities;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+*   Answers questions about runs of consecutive primes and their sums.
+*   The sum of primes[i..j) is prefix[j] - prefix[i], so any run is summed in
+*   O(1) once the prefix sums are built.
+*/
+class ConsecutivePrimeSums {
+
+    /**
+    *   A run of consecutive primes: primes[start] + ... + primes[start + length - 1] = sum.
+    */
+    protected static class Run {
+
+        protected final int start;
+        protected final int length;
+        protected final long sum;
+
+        Run(int start, int length, long sum) {
+            this.start = start;
+            this.length = length;
+            this.sum = sum;
+        }
+
+        @Override
+        public String toString() {
+            return "Run[start=" + start + ", length=" + length + ", sum=" + sum + "]";
+        }
+    }
+
+    // Shared instance over the PrimeOracle primes, see covering.
+    private static volatile ConsecutivePrimeSums shared;
+
+    private final int[] primes;
+    private final long[] prefix;
+    private final long bound; // Every prime up to bound is in primes.
+
+    /**
+    *   @param primes Every prime from 2 up to some bound, sorted from small to large.
+    */
+    ConsecutivePrimeSums(int[] primes) {
+        this(primes, primes.length == 0 ? 0 : primes[primes.length - 1]);
+    }
+
+    private ConsecutivePrimeSums(int[] primes, long bound) {
+        this.primes = primes;
+        this.bound = bound;
+        this.prefix = new long[primes.length + 1];
+
+        for (int i = 0; i < primes.length; i++) {
+            prefix[i + 1] = prefix[i] + primes[i];
+        }
+    }
+
+    /**
+    *   Returns a shared instance holding every prime up to at least limit.
+    *   It is rebuilt, at least doubling its bound, only when a larger limit
+    *   is asked for, so repeated queries reuse one prefix array.
+    *   @param limit Largest prime needed.
+    *   @return An instance covering limit.
+    */
+    protected static ConsecutivePrimeSums covering(int limit) {
+        ConsecutivePrimeSums sums = shared;
+        if (sums == null || sums.bound < limit) {
+            synchronized (ConsecutivePrimeSums.class) {
+                sums = shared;
+                if (sums == null || sums.bound < limit) {
+                    long doubled = sums == null ? 1 << 16 : 2 * sums.bound;
+                    int bound = (int) Math.min(Integer.MAX_VALUE, Math.max(limit, doubled));
+                    sums = new ConsecutivePrimeSums(PrimeOracle.getInstance().primesUpTo(bound), bound);
+                    shared = sums;
+                }
+            }
+        }
+        return sums;
+    }
+
+    /**
+    *   @return The number of primes available to runs.
+    */
+    protected int size() {
+        return primes.length;
+    }
+
+    /**
+    *   Sum of the run primes[start..end).
+    */
+    protected long sum(int start, int end) {
+        return prefix[end] - prefix[start];
+    }
+
+    /**
+    *   Finds the longest run of consecutive primes whose sum is a prime below
+    *   limit. Lengths are tried from the longest possible down, so the first
+    *   prime sum found is the answer; ties go to the earliest start.
+    *   @param limit Exclusive upper bound for the sum.
+    *   @return The longest run, or null if no prime is below limit.
+    *   @throws IllegalArgumentException if the primes stop before limit / 2.
+    */
+    protected Run longestRunBelow(long limit) {
+        checkCovers(limit);
+
+        int maxLength = maxLengthFrom(0, limit);
+
+        for (int length = maxLength; length > 0; length--) {
+            for (int start = 0; start + length <= primes.length; start++) {
+                long sum = prefix[start + length] - prefix[start];
+                if (sum >= limit) {
+                    break;
+                }
+                if (Utilities.isPrime(sum)) {
+                    return new Run(start, length, sum);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+    *   Same answer as longestRunBelow, found by scanning every start offset in
+    *   parallel. Each start binary searches its longest run below limit and
+    *   walks back to the first prime sum. Starts that cannot beat the best run
+    *   so far are skipped.
+    *   @param limit Exclusive upper bound for the sum.
+    *   @return The longest run, or null if no prime is below limit.
+    */
+    protected Run parallelLongestRunBelow(final long limit) {
+        checkCovers(limit);
+
+        final AtomicReference<Run> best = new AtomicReference<>();
+
+        IntStream.range(0, primes.length).parallel().forEach(start -> {
+            int length = maxLengthFrom(start, limit);
+
+            for (; length > 0; length--) {
+                Run current = best.get();
+                if (current != null && length < current.length) {
+                    return;
+                }
+
+                long sum = prefix[start + length] - prefix[start];
+                if (Utilities.isPrime(sum)) {
+                    Run candidate = new Run(start, length, sum);
+                    while (current == null || isBetter(candidate, current)) {
+                        if (best.compareAndSet(current, candidate)) {
+                            break;
+                        }
+                        current = best.get();
+                    }
+                    return;
+                }
+            }
+        });
+
+        return best.get();
+    }
+
+    /**
+    *   Answers longestRunBelow for many limits, in parallel.
+    *   @param limits Exclusive upper bounds.
+    *   @return The run for each limit, in the same order.
+    */
+    protected Run[] longestRunsBelow(long[] limits) {
+        Run[] answer = new Run[limits.length];
+        IntStream.range(0, limits.length).parallel().forEach(i -> answer[i] = longestRunBelow(limits[i]));
+        return answer;
+    }
+
+    /**
+    *   Finds the longest run of consecutive primes that sums to exactly n.
+    *   Of all runs with sum n the one that starts first is the longest, so a
+    *   two pointer walk from the left stops at the answer.
+    *   @param n The sum to look for.
+    *   @return The run, or null if none exists.
+    *   @throws IllegalArgumentException if the primes stop before n.
+    */
+    protected Run runWithSum(long n) {
+        if (n < 2) {
+            return null;
+        }
+        checkContains(n);
+        return findRunWithSum(n);
+    }
+
+    /**
+    *   Answers runWithSum for many targets, in parallel.
+    *   @param targets The sums to look for.
+    *   @return The length of the longest run for each target, or -1 where there is none.
+    *   @throws IllegalArgumentException if the primes stop before the largest target.
+    */
+    protected int[] runLengths(long[] targets) {
+        int[] answer = new int[targets.length];
+        long largest = 0;
+        for (long n : targets) {
+            largest = Math.max(largest, n);
+        }
+        if (largest >= 2) {
+            checkContains(largest);
+        }
+
+        IntStream.range(0, targets.length).parallel().forEach(i -> {
+            Run run = targets[i] < 2 ? null : findRunWithSum(targets[i]);
+            answer[i] = run == null ? -1 : run.length;
+        });
+
+        return answer;
+    }
+
+    // Two pointer walk for runWithSum; the primes must reach n.
+    private Run findRunWithSum(long n) {
+        int start = 0;
+        int end = 0;
+
+        while (true) {
+            long sum = prefix[end] - prefix[start];
+
+            if (sum == n && end > start) {
+                return new Run(start, end - start, sum);
+            } else if (sum < n) {
+                if (end == primes.length || primes[end] > n) {
+                    return null;
+                }
+                end++;
+            } else {
+                start++;
+            }
+        }
+    }
+
+    // Largest length such that the run from start stays below limit.
+    private int maxLengthFrom(int start, long limit) {
+        int lo = 0;
+        int hi = primes.length - start;
+
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (prefix[start + mid] - prefix[start] < limit) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        return lo;
+    }
+
+    private static boolean isBetter(Run a, Run b) {
+        return a.length > b.length || (a.length == b.length && a.start < b.start);
+    }
+
+    // A run of two or more primes summing to less than limit only uses primes below limit / 2.
+    private void checkCovers(long limit) {
+        if (2 * bound < limit - 1) {
+            throw new IllegalArgumentException("Primes end at " + bound + ", need every prime below " + (limit / 2));
+        }
+    }
+
+    // A run summing to exactly n may be the single prime n itself.
+    private void checkContains(long n) {
+        if (bound < n) {
+            throw new IllegalArgumentException("Primes end at " + bound + ", need every prime up to " + n);
+        }
+    }
+
+}
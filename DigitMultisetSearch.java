@@ -0,0 +1,270 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+*   Searches for numbers equal to a sum over their own digits (narcissistic
+*   numbers, factorions, digit power sums) by enumerating digit multisets.
+*   The sum only depends on which digits occur, not their order, so each of
+*   the C(n + 9, 9) multisets of n digits is summed once and accepted when the
+*   sum's own digits form the same multiset. That replaces 10^n candidates.
+*   Sums are kept in a long while they fit and in three longs after that;
+*   BigInteger is only used to build the tables and report matches.
+*/
+class DigitMultisetSearch {
+
+    // Longest length whose sums and bounds always fit in a long.
+    private static final int LONG_DIGITS = 18;
+
+    // Longer lengths are summed in LIMBS longs of LIMB_DIGITS decimal digits each.
+    private static final int LIMBS = 3;
+    private static final int LIMB_DIGITS = 13;
+    private static final int MAX_DIGITS = LIMBS * LIMB_DIGITS;
+    private static final long LIMB = Digits.POWERS_OF_TEN[LIMB_DIGITS];
+    private static final BigInteger BIG_LIMB = BigInteger.valueOf(LIMB);
+
+    /**
+    *   Finds every narcissistic number with at most maxDigits digits: n equals
+    *   the sum of its digits raised to the number of digits. There are none
+    *   above 39 digits, so larger limits search up to 39.
+    *   @param maxDigits Largest number of digits to search.
+    *   @return The matches from small to large.
+    */
+    protected static List<BigInteger> narcissisticNumbers(int maxDigits) {
+        List<BigInteger> found = new ArrayList<>();
+
+        for (int length = 1; length <= Math.min(maxDigits, MAX_DIGITS); length++) {
+            if (length <= LONG_DIGITS) {
+                searchLong(DigitPowers.POWERS[length], length, true, found);
+            } else {
+                searchWide(bigPowers(length), length, true, found);
+            }
+        }
+
+        Collections.sort(found);
+        return found;
+    }
+
+    /**
+    *   Finds every factorion: n equals the sum of the factorials of its digits.
+    *   No factorion has more than 7 digits since 8 * 9! has only 7.
+    *   @return The matches from small to large.
+    */
+    protected static long[] factorions() {
+        List<BigInteger> found = new ArrayList<>();
+
+        for (int length = 1; length <= 7; length++) {
+            searchLong(DigitPowers.FACTORIALS, length, true, found);
+        }
+
+        Collections.sort(found);
+        long[] answer = new long[found.size()];
+        for (int i = 0; i < answer.length; i++) {
+            answer[i] = found.get(i).longValue();
+        }
+        return answer;
+    }
+
+    /**
+    *   Finds every positive n equal to the sum of its digits raised to power,
+    *   e.g. 4150 = 4^5 + 1^5 + 5^5 + 0^5. Numbers shorter than the longest
+    *   possible length are covered by padding their multisets with zeros.
+    *   @param power Exponent, at least 1.
+    *   @return The matches from small to large.
+    *   @throws IllegalArgumentException if matches could have more than 39 digits.
+    */
+    protected static List<BigInteger> powerSumFixedPoints(int power) {
+        if (power < 1) {
+            throw new IllegalArgumentException("Power must be positive: " + power);
+        }
+
+        // Past this length even all nines sum to fewer digits than the number has.
+        BigInteger nine = BigInteger.valueOf(9).pow(power);
+        int length = 1;
+        while (nine.multiply(BigInteger.valueOf(length + 1)).compareTo(BigInteger.TEN.pow(length)) >= 0) {
+            length++;
+        }
+
+        if (length > MAX_DIGITS) {
+            throw new IllegalArgumentException("Matches for power " + power + " may exceed " + MAX_DIGITS + " digits");
+        }
+
+        List<BigInteger> found = new ArrayList<>();
+        if (length <= LONG_DIGITS && power <= DigitPowers.MAX_POWER
+                && nine.multiply(BigInteger.valueOf(length)).bitLength() < 63) {
+            searchLong(DigitPowers.POWERS[power], length, false, found);
+        } else {
+            searchWide(bigPowers(power), length, false, found);
+        }
+
+        Collections.sort(found);
+        return found;
+    }
+
+    // Enumerates multisets of length digits with long sums. exact: the sum must
+    // have exactly length digits; otherwise shorter sums are padded with zeros.
+    private static void searchLong(long[] term, int length, boolean exact, List<BigInteger> found) {
+        long min = exact ? Digits.POWERS_OF_TEN[length - 1] : 1;
+        long max = length < Digits.POWERS_OF_TEN.length ? Digits.POWERS_OF_TEN[length] - 1 : Long.MAX_VALUE;
+        searchLong(term, length, exact, min, max, 9, length, 0, 0, found);
+    }
+
+    private static void searchLong(long[] term, int length, boolean exact, long min, long max,
+            int digit, int remaining, long sum, long histogram, List<BigInteger> found) {
+        if (sum > max || sum + remaining * term[digit] < min) {
+            return; // Digits are chosen from 9 down, so term[digit] bounds the rest.
+        }
+
+        if (digit == 0) { // Whatever remains are zeros.
+            sum += remaining * term[0];
+            histogram += remaining;
+
+            if (sum >= min && sum <= max) {
+                int padding = length - Digits.count(sum);
+                if ((!exact || padding == 0) && Digits.histogram(sum) + padding == histogram) {
+                    found.add(BigInteger.valueOf(sum));
+                }
+            }
+            return;
+        }
+
+        for (int c = 0; c <= remaining; c++) {
+            searchLong(term, length, exact, min, max, digit - 1, remaining - c,
+                    sum + c * term[digit], histogram + ((long) c << (Digits.HISTOGRAM_BITS * digit)), found);
+        }
+    }
+
+    // Splits the multisets by how many 9s and 8s they hold and searches the parts in parallel.
+    private static void searchWide(final BigInteger[] term, final int length, final boolean exact, List<BigInteger> found) {
+        final List<BigInteger> shared = Collections.synchronizedList(found);
+        final int side = length + 1;
+
+        IntStream.range(0, side * side).parallel()
+                .filter(i -> i / side + i % side <= length)
+                .forEach(i -> new WideSearch(term, length, exact, shared).search(i / side, i % side));
+    }
+
+    /**
+    *   Multiset search for 19 to 39 digits. A sum is held in three longs of 13
+    *   decimal digits each, least significant first, so sums never allocate
+    *   and the digits of each limb are read with Digits.histogram.
+    */
+    private static class WideSearch {
+
+        private final long[][] term = new long[10][];
+        private final int length;
+        private final boolean exact;
+        private final long[] min;
+        private final long[] max;
+        private final long[][] sums = new long[10][LIMBS]; // Partial sum before choosing each digit.
+        private final long[] probe = new long[LIMBS];
+        private final List<BigInteger> found;
+
+        WideSearch(BigInteger[] term, int length, boolean exact, List<BigInteger> found) {
+            for (int d = 0; d < 10; d++) {
+                this.term[d] = toLimbs(term[d]);
+            }
+            this.length = length;
+            this.exact = exact;
+            this.min = toLimbs(exact ? BigInteger.TEN.pow(length - 1) : BigInteger.ONE);
+            this.max = toLimbs(BigInteger.TEN.pow(length).subtract(BigInteger.ONE));
+            this.found = found;
+        }
+
+        // Searches the multisets holding exactly nines 9s and eights 8s.
+        void search(int nines, int eights) {
+            multiplyAdd(sums[9], term[9], nines, sums[8]);
+            multiplyAdd(sums[8], term[8], eights, sums[7]);
+            search(7, length - nines - eights,
+                    ((long) nines << (Digits.HISTOGRAM_BITS * 9)) + ((long) eights << (Digits.HISTOGRAM_BITS * 8)));
+        }
+
+        private void search(int digit, int remaining, long histogram) {
+            long[] sum = sums[digit];
+            if (compare(sum, max) > 0) {
+                return;
+            }
+            multiplyAdd(sum, term[digit], remaining, probe);
+            if (compare(probe, min) < 0) {
+                return;
+            }
+
+            if (digit == 0) { // probe now holds the whole sum.
+                histogram += remaining;
+                if (compare(probe, max) <= 0 && matches(probe, histogram)) {
+                    found.add(toBigInteger(probe));
+                }
+                return;
+            }
+
+            long[] next = sums[digit - 1];
+            System.arraycopy(sum, 0, next, 0, LIMBS);
+            for (int c = 0; c <= remaining; c++) {
+                search(digit - 1, remaining - c, histogram + ((long) c << (Digits.HISTOGRAM_BITS * digit)));
+                multiplyAdd(next, term[digit], 1, next);
+            }
+        }
+
+        // Compares the digits of value, padded with zeros to length, against histogram.
+        private boolean matches(long[] value, long histogram) {
+            int top = LIMBS - 1;
+            while (top > 0 && value[top] == 0) {
+                top--;
+            }
+
+            long digits = Digits.histogram(value[top]);
+            int count = Digits.count(value[top]);
+            for (int i = top - 1; i >= 0; i--) {
+                digits += Digits.histogram(value[i]);
+                digits += LIMB_DIGITS - Digits.count(value[i]); // Leading zeros inside the limb.
+                count += LIMB_DIGITS;
+            }
+
+            int padding = length - count;
+            return (!exact || padding == 0) && digits + padding == histogram;
+        }
+    }
+
+    // out = a + b * k, carrying between limbs. out may be a.
+    private static void multiplyAdd(long[] a, long[] b, int k, long[] out) {
+        long carry = 0;
+        for (int i = 0; i < LIMBS - 1; i++) {
+            long limb = a[i] + b[i] * k + carry;
+            out[i] = limb % LIMB;
+            carry = limb / LIMB;
+        }
+        out[LIMBS - 1] = a[LIMBS - 1] + b[LIMBS - 1] * k + carry;
+    }
+
+    private static int compare(long[] a, long[] b) {
+        for (int i = LIMBS - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return a[i] < b[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static long[] toLimbs(BigInteger n) {
+        BigInteger[] parts = n.divideAndRemainder(BIG_LIMB.pow(2));
+        BigInteger[] low = parts[1].divideAndRemainder(BIG_LIMB);
+        return new long[] {low[1].longValue(), low[0].longValue(), parts[0].longValueExact()};
+    }
+
+    private static BigInteger toBigInteger(long[] limbs) {
+        return BigInteger.valueOf(limbs[2]).multiply(BIG_LIMB)
+                .add(BigInteger.valueOf(limbs[1])).multiply(BIG_LIMB)
+                .add(BigInteger.valueOf(limbs[0]));
+    }
+
+    private static BigInteger[] bigPowers(int power) {
+        BigInteger[] term = new BigInteger[10];
+        for (int d = 0; d < 10; d++) {
+            term[d] = BigInteger.valueOf(d).pow(power);
+        }
+        return term;
+    }
+
+}
@@ -0,0 +1,246 @@
+package mathUtilities;
+
+import java.util.stream.LongStream;
+
+/**
+*   Table driven sums of digit powers and digit factorials.
+*   d^k for every digit and k <= 19, and 0! to 9!, are computed once, so a
+*   digit sum is a few table lookups per digit with no floating point.
+*/
+class DigitPowers {
+
+    /**
+    *   Largest exponent in POWERS. 9^19 is the largest digit power that fits in a long.
+    */
+    protected static final int MAX_POWER = 19;
+
+    /**
+    *   POWERS[k][d] = d^k.
+    */
+    protected static final long[][] POWERS = new long[MAX_POWER + 1][10];
+
+    /**
+    *   FACTORIALS[d] = d!.
+    */
+    protected static final long[] FACTORIALS = {1, 1, 2, 6, 24, 120, 720, 5040, 40320, 362880};
+
+    static {
+        for (int d = 0; d < 10; d++) {
+            POWERS[0][d] = 1;
+            for (int k = 1; k <= MAX_POWER; k++) {
+                POWERS[k][d] = POWERS[k - 1][d] * d;
+            }
+        }
+    }
+
+    /**
+    *   Sum of the digits of n, each raised to power.
+    *   @param n A non-negative integer.
+    *   @param power Exponent from 0 to MAX_POWER.
+    *   @return The sum, or Long.MAX_VALUE if it does not fit in a long.
+    */
+    protected static long powerSum(long n, int power) {
+        checkPower(power);
+        if (n < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + n);
+        }
+
+        long[] table = POWERS[power];
+        long sum = 0;
+
+        do {
+            long term = table[(int) (n % 10)];
+            if (sum > Long.MAX_VALUE - term) {
+                return Long.MAX_VALUE;
+            }
+            sum += term;
+            n /= 10;
+        } while (n > 0);
+
+        return sum;
+    }
+
+    /**
+    *   Sum of the factorials of the digits of n.
+    *   @param n A non-negative integer.
+    *   @return The sum of d! over the digits d of n.
+    */
+    protected static long factorialSum(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + n);
+        }
+
+        long sum = 0;
+        do {
+            sum += FACTORIALS[(int) (n % 10)];
+            n /= 10;
+        } while (n > 0);
+
+        return sum;
+    }
+
+    /**
+    *   Finds every narcissistic number in [lo, hi]: n equals the sum of its
+    *   digits raised to the number of digits.
+    *   @param lo Lower bound, inclusive.
+    *   @param hi Upper bound, inclusive.
+    *   @return The matches from small to large.
+    */
+    protected static long[] narcissisticNumbers(long lo, long hi) {
+        LongStream.Builder found = LongStream.builder();
+        lo = Math.max(lo, 0);
+
+        // The exponent changes with the digit count, so scan one length at a time.
+        while (lo <= hi) {
+            int length = Digits.count(lo);
+            long end = length < Digits.POWERS_OF_TEN.length ? Math.min(hi, Digits.POWERS_OF_TEN[length] - 1) : hi;
+            scan(new Scanner(lo, POWERS[length]), end, found);
+            if (end == Long.MAX_VALUE) {
+                break;
+            }
+            lo = end + 1;
+        }
+
+        return found.build().toArray();
+    }
+
+    /**
+    *   Finds every n in [lo, hi] equal to the sum of its digits raised to power,
+    *   for example 4150 = 4^5 + 1^5 + 5^5 + 0^5.
+    *   @param lo Lower bound, inclusive.
+    *   @param hi Upper bound, inclusive.
+    *   @param power Exponent from 0 to MAX_POWER.
+    *   @return The matches from small to large.
+    */
+    protected static long[] powerSumFixedPoints(long lo, long hi, int power) {
+        checkPower(power);
+        LongStream.Builder found = LongStream.builder();
+        if (lo <= hi) {
+            scan(new Scanner(Math.max(lo, 0), POWERS[power]), hi, found);
+        }
+        return found.build().toArray();
+    }
+
+    /**
+    *   Finds every factorion in [lo, hi]: n equals the sum of the factorials of its digits.
+    *   @param lo Lower bound, inclusive.
+    *   @param hi Upper bound, inclusive.
+    *   @return The matches from small to large.
+    */
+    protected static long[] factorions(long lo, long hi) {
+        LongStream.Builder found = LongStream.builder();
+        if (lo <= hi) {
+            scan(new Scanner(Math.max(lo, 0), FACTORIALS), hi, found);
+        }
+        return found.build().toArray();
+    }
+
+    private static void scan(Scanner scanner, long hi, LongStream.Builder found) {
+        while (true) {
+            if (!scanner.overflowed() && scanner.sum() == scanner.value()) {
+                found.add(scanner.value());
+            }
+            if (scanner.value() >= hi) {
+                return;
+            }
+            scanner.next();
+        }
+    }
+
+    private static void checkPower(int power) {
+        if (power < 0 || power > MAX_POWER) {
+            throw new IllegalArgumentException("Power must be between 0 and " + MAX_POWER + ": " + power);
+        }
+    }
+
+    /**
+    *   Walks n, n + 1, n + 2, ... keeping the sum of term[d] over the digits d.
+    *   Going to the next value only touches the digits that change: the units
+    *   digit and any carries, so the sum is adjusted by a small delta instead
+    *   of being recomputed. With POWERS[19] the sum can pass Long.MAX_VALUE,
+    *   so it is kept exactly in two words.
+    */
+    protected static class Scanner {
+
+        private final long[] term;
+        private final int[] digits = new int[19]; // Least significant first.
+        private int length;
+        private long value;
+        private long sum;     // Low 64 bits of the sum, unsigned.
+        private long sumHigh; // The sum is sumHigh * 2^64 + sum.
+
+        /**
+        *   @param start First value, non-negative.
+        *   @param term Value added for each digit, e.g. POWERS[k] or FACTORIALS.
+        */
+        Scanner(long start, long[] term) {
+            this.term = term;
+            this.value = start;
+            this.length = Digits.count(start);
+
+            long rest = start;
+            for (int i = 0; i < length; i++) {
+                digits[i] = (int) (rest % 10);
+                add(term[digits[i]]);
+                rest /= 10;
+            }
+        }
+
+        /**
+        *   @return The current value.
+        */
+        protected long value() {
+            return value;
+        }
+
+        /**
+        *   @return The sum of term[d] over the digits of the current value, or
+        *           Long.MAX_VALUE if it does not fit in a long.
+        */
+        protected long sum() {
+            return overflowed() ? Long.MAX_VALUE : sum;
+        }
+
+        /**
+        *   @return Whether the sum is larger than Long.MAX_VALUE.
+        */
+        protected boolean overflowed() {
+            return sumHigh != 0 || sum < 0;
+        }
+
+        /**
+        *   Moves to the next value and updates the sum.
+        */
+        protected void next() {
+            value++;
+
+            int i = 0;
+            while (i < length && digits[i] == 9) { // 9 rolls over to 0 and carries.
+                add(term[0] - term[9]);
+                digits[i] = 0;
+                i++;
+            }
+
+            if (i == length) { // A new leading digit 1.
+                length++;
+                digits[i] = 1;
+                add(term[1]);
+            } else {
+                add(term[digits[i] + 1] - term[digits[i]]);
+                digits[i]++;
+            }
+        }
+
+        // Adds a signed delta to the two word sum.
+        private void add(long delta) {
+            long before = sum;
+            sum += delta;
+            if (delta >= 0 && Long.compareUnsigned(sum, before) < 0) {
+                sumHigh++;
+            } else if (delta < 0 && Long.compareUnsigned(sum, before) > 0) {
+                sumHigh--;
+            }
+        }
+    }
+
+}
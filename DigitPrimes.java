@@ -0,0 +1,238 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+*   Generators for primes defined by their digits: truncatable and circular primes.
+*   Instead of testing every number, candidates are grown a digit at a time
+*   from primes that already qualify, breadth first, so a branch dies as soon
+*   as one of its prefixes or suffixes is composite.
+*/
+class DigitPrimes {
+
+    // Certainty passed to BigInteger.isProbablePrime once candidates leave the long range.
+    private static final int CERTAINTY = 64;
+
+    // A prime with two or more digits ends in one of these.
+    private static final int[] ODD_ENDINGS = {1, 3, 7, 9};
+
+    private static final long[] SINGLE_DIGIT_PRIMES = {2, 3, 5, 7};
+
+    /**
+    *   Finds every right truncatable prime: removing digits from the right
+    *   leaves a prime each time, e.g. 7393, 739, 73, 7. Each level appends
+    *   1, 3, 7 or 9 to the primes of the previous level. There are 83 of
+    *   them, the largest being 73939133.
+    *   @return The primes from small to large.
+    */
+    protected static long[] rightTruncatablePrimes() {
+        long[] level = SINGLE_DIGIT_PRIMES.clone();
+        long[] all = level.clone();
+        int size = level.length;
+
+        while (level.length > 0) {
+            long[] next = new long[level.length * ODD_ENDINGS.length];
+            int count = 0;
+
+            for (long p : level) {
+                for (int d : ODD_ENDINGS) {
+                    long candidate = p * 10 + d;
+                    if (Utilities.isPrime(candidate)) {
+                        next[count++] = candidate;
+                    }
+                }
+            }
+
+            level = Arrays.copyOf(next, count);
+            if (size + count > all.length) {
+                all = Arrays.copyOf(all, Math.max(all.length * 2, size + count));
+            }
+            System.arraycopy(level, 0, all, size, count);
+            size += count;
+        }
+
+        all = Arrays.copyOf(all, size);
+        Arrays.sort(all);
+        return all;
+    }
+
+    /**
+    *   Finds every left truncatable prime without a zero digit: removing
+    *   digits from the left leaves a prime each time, e.g. 3797, 797, 97, 7.
+    *   Each level writes 1 to 9 in front of the primes of the previous level.
+    *   There are 4260 of them; the largest has 24 digits, so levels past 18
+    *   digits switch from long to BigInteger. The largest below 2^63 is
+    *   8963315421273233617.
+    *   @return The primes from small to large.
+    */
+    protected static List<BigInteger> leftTruncatablePrimes() {
+        List<BigInteger> all = new ArrayList<>();
+        long[] level = SINGLE_DIGIT_PRIMES.clone();
+        int length = 1;
+
+        // 9 * 10^18 plus an 18 digit suffix can pass Long.MAX_VALUE, so the
+        // long loop stops once the next level would have 19 digits.
+        while (level.length > 0 && length < Digits.POWERS_OF_TEN.length - 1) {
+            for (long p : level) {
+                all.add(BigInteger.valueOf(p));
+            }
+
+            long[] next = new long[level.length * 9];
+            int count = 0;
+            long place = Digits.POWERS_OF_TEN[length];
+
+            for (long p : level) {
+                for (int d = 1; d <= 9; d++) {
+                    long candidate = d * place + p;
+                    if (Utilities.isPrime(candidate)) {
+                        next[count++] = candidate;
+                    }
+                }
+            }
+
+            level = Arrays.copyOf(next, count);
+            length++;
+        }
+
+        // From 19 digits on the candidates may not fit in a long.
+        List<BigInteger> wide = new ArrayList<>();
+        for (long p : level) {
+            wide.add(BigInteger.valueOf(p));
+        }
+
+        while (!wide.isEmpty()) {
+            all.addAll(wide);
+
+            List<BigInteger> next = new ArrayList<>();
+            BigInteger place = BigInteger.TEN.pow(length);
+
+            for (BigInteger p : wide) {
+                BigInteger candidate = p;
+                for (int d = 1; d <= 9; d++) {
+                    candidate = candidate.add(place);
+                    if (candidate.isProbablePrime(CERTAINTY)) {
+                        next.add(candidate);
+                    }
+                }
+            }
+
+            wide = next;
+            length++;
+        }
+
+        Collections.sort(all);
+        return all;
+    }
+
+    /**
+    *   Finds every circular prime below limit: all rotations of the digits
+    *   are prime, e.g. 197, 971, 719. Past one digit every digit must be 1,
+    *   3, 7 or 9 (any other digit rotated to the end gives a multiple of 2
+    *   or 5), so only those 4^k numbers of each length k are tried, and only
+    *   the smallest rotation of each cycle is tested.
+    *   @param limit Exclusive upper bound.
+    *   @return The primes from small to large.
+    */
+    protected static long[] circularPrimes(long limit) {
+        if (limit <= 2) {
+            return new long[0];
+        }
+
+        List<Long> found = new ArrayList<>();
+        for (long p : SINGLE_DIGIT_PRIMES) {
+            if (p < limit) {
+                found.add(p);
+            }
+        }
+
+        int maxLength = Digits.count(limit - 1);
+        long[] rotations = new long[maxLength];
+
+        for (int length = 2; length <= maxLength; length++) {
+            // Count in base 4 over the digits 1, 3, 7, 9.
+            for (long code = 0; code < 1L << (2 * length); code++) {
+                long n = 0;
+                for (int i = length - 1; i >= 0; i--) {
+                    n = n * 10 + ODD_ENDINGS[(int) ((code >>> (2 * i)) & 3)];
+                }
+
+                int cycle = rotations(n, length, rotations);
+                if (cycle < 0) {
+                    continue; // A smaller rotation stands for this cycle.
+                }
+
+                boolean prime = true;
+                for (int i = 0; i < cycle && prime; i++) {
+                    prime = Utilities.isPrime(rotations[i]);
+                }
+
+                if (prime) {
+                    for (int i = 0; i < cycle; i++) {
+                        if (rotations[i] < limit) {
+                            found.add(rotations[i]);
+                        }
+                    }
+                }
+            }
+        }
+
+        long[] answer = new long[found.size()];
+        for (int i = 0; i < answer.length; i++) {
+            answer[i] = found.get(i);
+        }
+        Arrays.sort(answer);
+        return answer;
+    }
+
+    /**
+    *   @param n A prime.
+    *   @return Whether every rotation of the digits of n is prime.
+    */
+    protected static boolean isCircularPrime(long n) {
+        if (!Utilities.isPrime(n)) {
+            return false;
+        }
+
+        int length = Digits.count(n);
+        long rotation = n;
+        for (int i = 1; i < length; i++) {
+            rotation = rotate(rotation, length);
+            if (!Utilities.isPrime(rotation)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+    *   Moves the last of length digits to the front: rotate(197, 3) is 719.
+    *   Zeros are kept as digits, so rotate(310, 3) is 31, read as 031.
+    *   @param n A non-negative integer with at most length digits.
+    *   @param length Number of digits n is taken to have.
+    *   @return The rotated value.
+    */
+    protected static long rotate(long n, int length) {
+        return n % 10 * Digits.POWERS_OF_TEN[length - 1] + n / 10;
+    }
+
+    // Writes the distinct rotations of n into out, n first. Returns their
+    // number, or -1 if some rotation is smaller than n.
+    private static int rotations(long n, int length, long[] out) {
+        out[0] = n;
+        long rotation = rotate(n, length);
+        int count = 1;
+
+        while (rotation != n) {
+            if (rotation < n) {
+                return -1;
+            }
+            out[count++] = rotation;
+            rotation = rotate(rotation, length);
+        }
+
+        return count;
+    }
+
+}
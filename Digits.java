@@ -0,0 +1,207 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+
+/**
+*   Arithmetic digit helpers for non-negative longs.
+*   Nothing here allocates: digits are peeled off with division by 10 (or
+*   100 with a lookup table), and per-digit counts are packed into a long.
+*/
+class Digits {
+
+    /**
+    *   10^i for i = 0..18.
+    */
+    protected static final long[] POWERS_OF_TEN = new long[19];
+
+    // Bits per digit in a packed histogram. 6 bits hold up to 63, a long has at most 19 digits.
+    protected static final int HISTOGRAM_BITS = 6;
+
+    private static final long HISTOGRAM_MASK = (1L << HISTOGRAM_BITS) - 1;
+
+    // REVERSED_PAIRS[10a + b] = 10b + a.
+    private static final int[] REVERSED_PAIRS = new int[100];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+
+        for (int i = 0; i < 100; i++) {
+            REVERSED_PAIRS[i] = (i % 10) * 10 + i / 10;
+        }
+    }
+
+    /**
+    *   Number of decimal digits of n. 0 has one digit.
+    *   The bit length gives an estimate that is off by at most one.
+    *   @param n A non-negative integer.
+    *   @return The number of digits of n.
+    */
+    protected static int count(long n) {
+        check(n);
+
+        int estimate = ((64 - Long.numberOfLeadingZeros(n)) * 1233) >>> 12; // 1233 / 4096 ~ log10(2).
+        if (estimate < POWERS_OF_TEN.length && n >= POWERS_OF_TEN[estimate]) {
+            estimate++;
+        }
+        return Math.max(estimate, 1);
+    }
+
+    /**
+    *   @param n A non-negative integer.
+    *   @param position Index counted from the right, 0 being the units digit.
+    *   @return The digit of n at position.
+    */
+    protected static int digitAt(long n, int position) {
+        check(n);
+        return position >= POWERS_OF_TEN.length ? 0 : (int) ((n / POWERS_OF_TEN[position]) % 10);
+    }
+
+    /**
+    *   @param n A non-negative integer.
+    *   @return The sum of the digits of n.
+    */
+    protected static int sum(long n) {
+        check(n);
+
+        int sum = 0;
+        while (n > 0) {
+            sum += n % 10;
+            n /= 10;
+        }
+        return sum;
+    }
+
+    /**
+    *   Writes the digits of n into out, most significant first.
+    *   @param n A non-negative integer.
+    *   @param out Receives the digits. 19 entries are always enough.
+    *   @return The number of digits written.
+    */
+    protected static int toArray(long n, int[] out) {
+        int length = count(n);
+        for (int i = length - 1; i >= 0; i--) {
+            out[i] = (int) (n % 10);
+            n /= 10;
+        }
+        return length;
+    }
+
+    /**
+    *   Builds n back from its digits, most significant first.
+    *   @param digits Array of digits.
+    *   @param length Number of digits to use.
+    *   @return The value of the digits.
+    */
+    protected static long fromArray(int[] digits, int length) {
+        long n = 0;
+        for (int i = 0; i < length; i++) {
+            n = n * 10 + digits[i];
+        }
+        return n;
+    }
+
+    /**
+    *   Counts how often each digit occurs in n. The count of digit d is held
+    *   in bits 6d to 6d + 5; read it back with count(histogram, d).
+    *   @param n A non-negative integer.
+    *   @return The packed histogram.
+    */
+    protected static long histogram(long n) {
+        check(n);
+
+        long histogram = 0;
+        do {
+            histogram += 1L << (HISTOGRAM_BITS * (int) (n % 10));
+            n /= 10;
+        } while (n > 0);
+        return histogram;
+    }
+
+    /**
+    *   @param histogram A histogram from histogram(long).
+    *   @param digit The digit to read.
+    *   @return How often digit occurs.
+    */
+    protected static int count(long histogram, int digit) {
+        return (int) ((histogram >>> (HISTOGRAM_BITS * digit)) & HISTOGRAM_MASK);
+    }
+
+    /**
+    *   Canonical digit signature of n: equal for two values exactly when one
+    *   is a permutation of the other's digits. Same layout as histogram.
+    *   @param n A non-negative integer.
+    *   @return The signature of n.
+    */
+    protected static long signature(long n) {
+        return histogram(n);
+    }
+
+    /**
+    *   Canonical digit signature of a BigInteger, in the same layout as
+    *   signature(long), so equal values give equal signatures across both.
+    *   @param n A non-negative integer.
+    *   @return The signature of n.
+    *   @throws ArithmeticException if a digit occurs more than 63 times.
+    */
+    protected static long signature(BigInteger n) {
+        if (n.signum() < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + n);
+        }
+        if (n.bitLength() < 64) {
+            return histogram(n.longValue());
+        }
+
+        String str = n.toString();
+        long histogram = 0;
+
+        for (int i = 0; i < str.length(); i++) {
+            int shift = HISTOGRAM_BITS * (str.charAt(i) - '0');
+            if (((histogram >>> shift) & HISTOGRAM_MASK) == HISTOGRAM_MASK) {
+                throw new ArithmeticException("Digit occurs more than " + HISTOGRAM_MASK + " times");
+            }
+            histogram += 1L << shift;
+        }
+
+        return histogram;
+    }
+
+    /**
+    *   Reverses the digits of n, two at a time. Trailing zeros are dropped,
+    *   so reverse(120) is 21.
+    *   @param n A non-negative integer.
+    *   @return The reverse of n.
+    *   @throws ArithmeticException if the reverse does not fit in a long.
+    */
+    protected static long reverse(long n) {
+        check(n);
+
+        if (n >= POWERS_OF_TEN[18]) { // Only 19 digit values can overflow.
+            long reverse = 0;
+            while (n > 0) {
+                reverse = Math.addExact(Math.multiplyExact(reverse, 10), n % 10);
+                n /= 10;
+            }
+            return reverse;
+        }
+
+        long reverse = 0;
+        while (n >= 10) {
+            reverse = reverse * 100 + REVERSED_PAIRS[(int) (n % 100)];
+            n /= 100;
+        }
+        if (n > 0) {
+            reverse = reverse * 10 + n;
+        }
+        return reverse;
+    }
+
+    private static void check(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Value must be non-negative: " + n);
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+*   Exact factorials by binary splitting.
+*   n! is 2^(n - bitCount(n)) times its odd part, and the odd part is built
+*   from products of the odd numbers in (n >> (i + 1), n >> i], one range
+*   per bit of n. Each range is multiplied as a balanced product tree by
+*   Products, so BigInteger multiplies numbers of similar size instead of
+*   growing one number a factor at a time.
+*   Recently computed factorials are kept in a small LRU cache.
+*/
+class Factorials {
+
+    // 0! to 20!, every factorial that fits in a long.
+    private static final long[] SMALL = new long[21];
+
+    // Number of large factorials remembered.
+    private static final int CACHE_SIZE = 16;
+
+    private static final Map<Integer, BigInteger> CACHE = new LinkedHashMap<Integer, BigInteger>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, BigInteger> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    static {
+        SMALL[0] = 1;
+        for (int i = 1; i < SMALL.length; i++) {
+            SMALL[i] = SMALL[i - 1] * i;
+        }
+    }
+
+    /**
+    *   @param n A non-negative integer.
+    *   @return n! as a long.
+    *   @throws ArithmeticException if n! does not fit in a long, that is n > 20.
+    */
+    protected static long longFactorial(int n) {
+        checkNonNegative(n);
+        if (n >= SMALL.length) {
+            throw new ArithmeticException(n + "! does not fit in a long");
+        }
+        return SMALL[n];
+    }
+
+    /**
+    *   Computes n! on the common ForkJoinPool.
+    *   @param n A non-negative integer.
+    *   @return n!
+    */
+    protected static BigInteger factorial(int n) {
+        return factorial(n, ForkJoinPool.commonPool());
+    }
+
+    /**
+    *   @param n A non-negative integer.
+    *   @param pool Pool that multiplies large product trees.
+    *   @return n!
+    */
+    protected static BigInteger factorial(int n, ForkJoinPool pool) {
+        checkNonNegative(n);
+        if (n < SMALL.length) {
+            return BigInteger.valueOf(SMALL[n]);
+        }
+
+        BigInteger cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(n);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        // Going from the top bit down, odd accumulates the odd numbers up to
+        // n >> i and result picks up one copy of odd per level.
+        BigInteger odd = BigInteger.ONE;
+        BigInteger result = BigInteger.ONE;
+
+        for (int i = 31 - Integer.numberOfLeadingZeros(n); i >= 0; i--) {
+            long lo = (long) n >> (i + 1);
+            long hi = (long) n >> i;
+            long first = (lo + 1) | 1;
+            long last = (hi & 1) == 0 ? hi - 1 : hi;
+
+            if (first <= last) {
+                int count = (int) ((last - first) / 2 + 1);
+                odd = odd.multiply(Products.oddProduct(first, count, pool));
+            }
+            result = result.multiply(odd);
+        }
+
+        result = result.shiftLeft(n - Integer.bitCount(n));
+
+        synchronized (CACHE) {
+            CACHE.put(n, result);
+        }
+        return result;
+    }
+
+    private static void checkNonNegative(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Factorial of a negative number: " + n);
+        }
+    }
+
+}
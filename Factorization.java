@@ -0,0 +1,89 @@
+package mathUtilities;
+
+import java.util.Arrays;
+
+/**
+*   Prime factorization of a long, stored as parallel primitive arrays of
+*   distinct primes (sorted from small to large) and their exponents.
+*/
+class Factorization {
+
+    private final long[] primes;
+    private final int[] exponents;
+
+    Factorization(long[] primes, int[] exponents) {
+        this.primes = primes;
+        this.exponents = exponents;
+    }
+
+    /**
+    *   @return The number of distinct primes.
+    */
+    protected int size() {
+        return primes.length;
+    }
+
+    /**
+    *   @param index Index from 0 to size() - 1.
+    *   @return The prime at index.
+    */
+    protected long prime(int index) {
+        return primes[index];
+    }
+
+    /**
+    *   @param index Index from 0 to size() - 1.
+    *   @return The exponent of the prime at index.
+    */
+    protected int exponent(int index) {
+        return exponents[index];
+    }
+
+    /**
+    *   @return A copy of the distinct primes.
+    */
+    protected long[] primes() {
+        return primes.clone();
+    }
+
+    /**
+    *   @return A copy of the exponents, in the same order as primes().
+    */
+    protected int[] exponents() {
+        return exponents.clone();
+    }
+
+    @Override
+    public String toString() {
+        if (primes.length == 0) {
+            return "1";
+        }
+
+        StringBuilder str = new StringBuilder();
+        for (int i = 0; i < primes.length; i++) {
+            if (i > 0) {
+                str.append(" * ");
+            }
+            str.append(primes[i]);
+            if (exponents[i] > 1) {
+                str.append('^').append(exponents[i]);
+            }
+        }
+        return str.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Factorization)) {
+            return false;
+        }
+        Factorization that = (Factorization) other;
+        return Arrays.equals(primes, that.primes) && Arrays.equals(exponents, that.exponents);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(primes) + Arrays.hashCode(exponents);
+    }
+
+}
@@ -0,0 +1,279 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+*   Integer factorization for long and BigInteger values.
+*   Small factors are removed by trial division; what remains is split with
+*   Pollard's rho using Brent's cycle detection and batched gcds until every
+*   piece passes a primality test.
+*   Source: Brent, R. P. - An improved Monte Carlo factorization algorithm (1980)
+*/
+class Factorizer {
+
+    // Trial division covers every prime below this bound.
+    private static final int TRIAL_LIMIT = 1 << 12;
+
+    // Number of |x - y| products collected before each gcd.
+    private static final int BATCH = 128;
+
+    // Above this many bits BigInteger values stay on the BigInteger path.
+    private static final int LONG_BITS = 62;
+
+    // Certainty passed to BigInteger.isProbablePrime: error below 2^-64.
+    private static final int CERTAINTY = 64;
+
+    /**
+    *   Factors a positive long.
+    *   @param n Value to factor, at least 1.
+    *   @return The distinct prime factors of n with their exponents.
+    *   @throws IllegalArgumentException if n is less than 1.
+    */
+    protected static Factorization factorize(long n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Value must be positive: " + n);
+        }
+
+        long[] found = new long[64]; // A long has at most 63 prime factors.
+        int count = 0;
+
+        int zeros = Long.numberOfTrailingZeros(n);
+        for (int i = 0; i < zeros; i++) {
+            found[count++] = 2;
+        }
+        n >>>= zeros;
+
+        PrimeOracle oracle = PrimeOracle.getInstance();
+        for (int i = 1; ; i++) {
+            long p = oracle.prime(i);
+            if (p >= TRIAL_LIMIT || p * p > n) {
+                break;
+            }
+            while (n % p == 0) {
+                found[count++] = p;
+                n /= p;
+            }
+        }
+
+        // Cofactors still to be split. All are odd and free of factors below TRIAL_LIMIT.
+        long[] pending = new long[64];
+        int numPending = 0;
+        if (n > 1) {
+            pending[numPending++] = n;
+        }
+
+        while (numPending > 0) {
+            long m = pending[--numPending];
+            if (m < (long) TRIAL_LIMIT * TRIAL_LIMIT || Utilities.primalityTest(m)) {
+                found[count++] = m;
+            } else {
+                long d = pollardBrent(m);
+                pending[numPending++] = d;
+                pending[numPending++] = m / d;
+            }
+        }
+
+        return collect(found, count);
+    }
+
+    /**
+    *   Factors a positive BigInteger. Pieces that fit in a long are handed to
+    *   factorize(long); larger pieces are tested with BigInteger.isProbablePrime.
+    *   @param n Value to factor, at least 1.
+    *   @return Map from each distinct prime factor to its exponent, sorted by prime.
+    *   @throws IllegalArgumentException if n is less than 1.
+    */
+    protected static SortedMap<BigInteger, Integer> factorize(BigInteger n) {
+        if (n.signum() < 1) {
+            throw new IllegalArgumentException("Value must be positive: " + n);
+        }
+
+        SortedMap<BigInteger, Integer> factors = new TreeMap<>();
+        Deque<BigInteger> pending = new ArrayDeque<>();
+
+        int zeros = n.getLowestSetBit();
+        if (zeros > 0) {
+            factors.put(BigInteger.valueOf(2), zeros);
+            n = n.shiftRight(zeros);
+        }
+
+        PrimeOracle oracle = PrimeOracle.getInstance();
+        for (int i = 1; n.bitLength() > LONG_BITS; i++) {
+            int p = oracle.prime(i);
+            if (p >= TRIAL_LIMIT) {
+                break;
+            }
+            BigInteger prime = BigInteger.valueOf(p);
+            BigInteger[] qr = n.divideAndRemainder(prime);
+            while (qr[1].signum() == 0) {
+                add(factors, prime, 1);
+                n = qr[0];
+                qr = n.divideAndRemainder(prime);
+            }
+        }
+
+        pending.push(n);
+
+        while (!pending.isEmpty()) {
+            BigInteger m = pending.pop();
+
+            if (m.bitLength() <= LONG_BITS) {
+                Factorization small = factorize(m.longValue());
+                for (int i = 0; i < small.size(); i++) {
+                    add(factors, BigInteger.valueOf(small.prime(i)), small.exponent(i));
+                }
+            } else if (m.isProbablePrime(CERTAINTY)) {
+                add(factors, m, 1);
+            } else {
+                BigInteger d = pollardBrent(m);
+                pending.push(d);
+                pending.push(m.divide(d));
+            }
+        }
+
+        return factors;
+    }
+
+    /**
+    *   Finds a non-trivial factor of an odd composite n with Pollard's rho and
+    *   Brent's cycle detection. Arithmetic is done in Montgomery form.
+    *   @param n Odd composite with no factor below TRIAL_LIMIT.
+    *   @return A divisor d of n with 1 < d < n.
+    */
+    protected static long pollardBrent(long n) {
+        long inverse = Utilities.montgomeryInverse(n);
+        long one = Utilities.montgomeryMultiply(1, Utilities.montgomeryR2(n), n, inverse);
+
+        for (long c = one; ; c = Utilities.addMod(c, one, n)) {
+            long y = c;
+            long x = y;
+            long ys = y;
+            long q = one;
+            long g = 1;
+
+            for (long r = 1; g == 1; r <<= 1) {
+                x = y;
+                for (long i = 0; i < r; i++) {
+                    y = Utilities.addMod(Utilities.montgomeryMultiply(y, y, n, inverse), c, n);
+                }
+
+                for (long k = 0; k < r && g == 1; k += BATCH) {
+                    ys = y;
+                    for (long i = 0, steps = Math.min(BATCH, r - k); i < steps; i++) {
+                        y = Utilities.addMod(Utilities.montgomeryMultiply(y, y, n, inverse), c, n);
+                        q = Utilities.montgomeryMultiply(q, Math.abs(x - y), n, inverse);
+                    }
+                    g = gcd(q, n);
+                }
+            }
+
+            if (g == n) { // The batch overshot; step through it one value at a time.
+                do {
+                    ys = Utilities.addMod(Utilities.montgomeryMultiply(ys, ys, n, inverse), c, n);
+                    g = gcd(Math.abs(x - ys), n);
+                } while (g == 1);
+            }
+
+            if (g != n) {
+                return g;
+            }
+        }
+    }
+
+    /**
+    *   BigInteger version of pollardBrent(long).
+    *   @param n Odd composite.
+    *   @return A divisor d of n with 1 < d < n.
+    */
+    protected static BigInteger pollardBrent(BigInteger n) {
+        for (BigInteger c = BigInteger.ONE; ; c = c.add(BigInteger.ONE)) {
+            BigInteger y = BigInteger.valueOf(2);
+            BigInteger x = y;
+            BigInteger ys = y;
+            BigInteger q = BigInteger.ONE;
+            BigInteger g = BigInteger.ONE;
+
+            for (long r = 1; g.equals(BigInteger.ONE); r <<= 1) {
+                x = y;
+                for (long i = 0; i < r; i++) {
+                    y = y.multiply(y).add(c).mod(n);
+                }
+
+                for (long k = 0; k < r && g.equals(BigInteger.ONE); k += BATCH) {
+                    ys = y;
+                    for (long i = 0, steps = Math.min(BATCH, r - k); i < steps; i++) {
+                        y = y.multiply(y).add(c).mod(n);
+                        q = q.multiply(x.subtract(y).abs()).mod(n);
+                    }
+                    g = q.gcd(n);
+                }
+            }
+
+            if (g.equals(n)) {
+                do {
+                    ys = ys.multiply(ys).add(c).mod(n);
+                    g = x.subtract(ys).abs().gcd(n);
+                } while (g.equals(BigInteger.ONE));
+            }
+
+            if (!g.equals(n)) {
+                return g;
+            }
+        }
+    }
+
+    /**
+    *   Binary greatest common divisor of two non-negative longs.
+    *   Source: Wikipedia Article - Binary GCD algorithm
+    */
+    protected static long gcd(long a, long b) {
+        if (a == 0) {
+            return b;
+        }
+        if (b == 0) {
+            return a;
+        }
+
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+
+        while (b != 0) {
+            b >>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long t = b;
+                b = a;
+                a = t;
+            }
+            b -= a;
+        }
+
+        return a << shift;
+    }
+
+    private static void add(SortedMap<BigInteger, Integer> factors, BigInteger prime, int exponent) {
+        Integer current = factors.get(prime);
+        factors.put(prime, current == null ? exponent : current + exponent);
+    }
+
+    private static Factorization collect(long[] found, int count) {
+        Arrays.sort(found, 0, count);
+
+        long[] primes = new long[count];
+        int[] exponents = new int[count];
+        int size = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (size > 0 && primes[size - 1] == found[i]) {
+                exponents[size - 1]++;
+            } else {
+                primes[size] = found[i];
+                exponents[size] = 1;
+                size++;
+            }
+        }
+
+        return new Factorization(Arrays.copyOf(primes, size), Arrays.copyOf(exponents, size));
+    }
+
+}
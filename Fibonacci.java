@@ -0,0 +1,404 @@
+package mathUtilities;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+*   Fibonacci numbers by fast doubling.
+*   From F(k) and F(k + 1),
+*       F(2k)     = F(k) * (2F(k + 1) - F(k))
+*       F(2k + 1) = F(k)^2 + F(k + 1)^2,
+*   so F(n) takes one doubling step per bit of n instead of n additions.
+*   Exact values fit in a long up to F(92), which are tabulated. Beyond
+*   that the three products of a step are BigIntegers, multiplied in
+*   parallel once they are large. Residues use the same steps mod m, and
+*   Pisano periods come from the factorization of m.
+*
+*   Digit queries avoid the full number. By Binet's formula, log10 F(n) is
+*   n * log10(phi) - log10(sqrt(5)) up to a term below 10^-38 once n > 92,
+*   which with 60 digit constants pins down the digit count and leading
+*   digits of F(n) for any long n. Only when that value falls within 10^-20
+*   of a boundary is F(n) expanded to settle it.
+*/
+class Fibonacci {
+
+    /**
+    *   Largest n for which F(n) fits in a long.
+    */
+    protected static final int MAX_LONG_INDEX = 92;
+
+    // F(0) to F(92).
+    private static final long[] SMALL = new long[MAX_LONG_INDEX + 1];
+
+    // Operands of at least this many bits are multiplied on separate threads.
+    private static final int PARALLEL_BITS = 1 << 16;
+
+    private static final BigDecimal LOG10_PHI = new BigDecimal("0.208987640249978733769272089237555416822459239918210953539287");
+    private static final BigDecimal LOG10_SQRT5 = new BigDecimal("0.349485002168009402393130552637753486615905059268945729344786");
+    private static final BigDecimal LN_10 = new BigDecimal("2.302585092994045684017991454684364207601101488628772976033327");
+    private static final MathContext PRECISION = new MathContext(60);
+
+    // Estimates closer than this to a boundary are confirmed exactly.
+    private static final BigDecimal MARGIN = BigDecimal.ONE.movePointLeft(20);
+
+    // Number of Pisano periods remembered.
+    private static final int CACHE_SIZE = 256;
+
+    private static final Map<Long, Long> PISANO_CACHE = new LinkedHashMap<Long, Long>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    static {
+        SMALL[1] = 1;
+        for (int i = 2; i < SMALL.length; i++) {
+            SMALL[i] = SMALL[i - 1] + SMALL[i - 2];
+        }
+    }
+
+    /**
+    *   @param n A non-negative index.
+    *   @return F(n) as a long, with F(0) = 0 and F(1) = 1.
+    *   @throws ArithmeticException if F(n) does not fit in a long, that is n > 92.
+    */
+    protected static long longFibonacci(int n) {
+        checkNonNegative(n);
+        if (n > MAX_LONG_INDEX) {
+            throw new ArithmeticException("F(" + n + ") does not fit in a long");
+        }
+        return SMALL[n];
+    }
+
+    /**
+    *   Computes F(n) on the common ForkJoinPool.
+    *   @param n A non-negative index.
+    *   @return F(n)
+    */
+    protected static BigInteger fibonacci(int n) {
+        return fibonacci(n, ForkJoinPool.commonPool());
+    }
+
+    /**
+    *   @param n A non-negative index.
+    *   @param pool Pool that multiplies large operands.
+    *   @return F(n)
+    */
+    protected static BigInteger fibonacci(int n, ForkJoinPool pool) {
+        checkNonNegative(n);
+        if (n <= MAX_LONG_INDEX) {
+            return BigInteger.valueOf(SMALL[n]);
+        }
+
+        // Start from the table at the top bits of n, then double per bit.
+        int shift = 0;
+        while (n >> shift >= MAX_LONG_INDEX) {
+            shift++;
+        }
+        int k = n >> shift;
+        BigInteger a = BigInteger.valueOf(SMALL[k]);
+        BigInteger b = BigInteger.valueOf(SMALL[k + 1]);
+
+        for (int i = shift - 1; i >= 0; i--) {
+            BigInteger twoK;
+            BigInteger aa;
+            BigInteger bb;
+            if (a.bitLength() >= PARALLEL_BITS) {
+                ForkJoinTask<BigInteger> square = Products.multiplyAsync(a, a, pool);
+                ForkJoinTask<BigInteger> other = Products.multiplyAsync(b, b, pool);
+                twoK = a.multiply(b.shiftLeft(1).subtract(a));
+                aa = square.join();
+                bb = other.join();
+            } else {
+                twoK = a.multiply(b.shiftLeft(1).subtract(a));
+                aa = a.multiply(a);
+                bb = b.multiply(b);
+            }
+
+            BigInteger twoKPlusOne = aa.add(bb);
+            if ((n >> i & 1) == 0) {
+                a = twoK;
+                b = twoKPlusOne;
+            } else {
+                a = twoKPlusOne;
+                b = twoK.add(twoKPlusOne);
+            }
+        }
+
+        return a;
+    }
+
+    /**
+    *   @param n A non-negative index.
+    *   @param m Modulus, at least 1.
+    *   @return F(n) mod m.
+    */
+    protected static long fibonacciMod(long n, long m) {
+        return pairMod(n, m)[0];
+    }
+
+    /**
+    *   Calculates the Pisano period of m, the period of the Fibonacci
+    *   sequence mod m. It is the lcm of the periods of the prime powers
+    *   dividing m. The period of p^e divides p^(e - 1) times p - 1 when p is
+    *   1 or 4 mod 5, and 2(p + 1) when p is 2 or 3 mod 5 (3 for p = 2 and 20
+    *   for p = 5); that bound is divided by its prime factors for as long as
+    *   it stays a period.
+    *   @param m Modulus, at least 1.
+    *   @return The Pisano period of m.
+    *   @throws ArithmeticException if the period does not fit in a long.
+    */
+    protected static long pisanoPeriod(long m) {
+        if (m < 1) {
+            throw new IllegalArgumentException("Modulus must be positive: " + m);
+        }
+        if (m == 1) {
+            return 1;
+        }
+
+        Long cached;
+        synchronized (PISANO_CACHE) {
+            cached = PISANO_CACHE.get(m);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        Factorization factors = Factorizer.factorize(m);
+        long period = 1;
+        for (int i = 0; i < factors.size(); i++) {
+            long p = factors.prime(i);
+            int e = factors.exponent(i);
+            long q = 1;
+            for (int j = 0; j < e; j++) {
+                q *= p;
+            }
+
+            long primePeriod = primePowerPeriod(p, e, q);
+            period = Math.multiplyExact(period / Factorizer.gcd(period, primePeriod), primePeriod);
+        }
+
+        synchronized (PISANO_CACHE) {
+            PISANO_CACHE.put(m, period);
+        }
+        return period;
+    }
+
+    /**
+    *   @param count Number of terms, at most 93.
+    *   @return F(0), F(1), ..., F(count - 1).
+    *   @throws ArithmeticException if the last term does not fit in a long.
+    */
+    protected static long[] sequence(int count) {
+        checkNonNegative(count);
+        if (count > SMALL.length) {
+            throw new ArithmeticException("F(" + (count - 1) + ") does not fit in a long");
+        }
+        return Arrays.copyOf(SMALL, count);
+    }
+
+    /**
+    *   @param limit Exclusive upper bound.
+    *   @return F(1), F(2), ... up to the last term below limit, so starting 1, 1, 2.
+    */
+    protected static long[] sequenceBelow(long limit) {
+        int count = 0;
+        while (count < MAX_LONG_INDEX && SMALL[count + 1] < limit) {
+            count++;
+        }
+        return Arrays.copyOfRange(SMALL, 1, count + 1);
+    }
+
+    /**
+    *   @param n A non-negative index.
+    *   @return The number of decimal digits of F(n), counting F(0) = 0 as one digit.
+    */
+    protected static long digitCount(long n) {
+        checkNonNegative(n);
+        if (n <= MAX_LONG_INDEX) {
+            return Digits.count(SMALL[(int) n]);
+        }
+
+        BigDecimal log = log10(n);
+        BigDecimal floor = log.setScale(0, RoundingMode.FLOOR);
+        if (nearInteger(log.subtract(floor))) {
+            return exact(n).toString().length();
+        }
+        return floor.longValueExact() + 1;
+    }
+
+    /**
+    *   Finds the first Fibonacci number with d digits, such as F(4782), the
+    *   first with 1000. The index is estimated from the logarithm, then
+    *   corrected with digitCount. The search starts at F(1), so d = 1
+    *   gives 1 rather than the zero F(0).
+    *   @param d Number of digits, at least 1.
+    *   @return The smallest n >= 1 for which F(n) has d digits.
+    */
+    protected static long firstWithDigits(long d) {
+        if (d < 1) {
+            throw new IllegalArgumentException("Digit count must be positive: " + d);
+        }
+
+        // Smallest n with n * log10(phi) - log10(sqrt(5)) >= d - 1.
+        long n = BigDecimal.valueOf(d - 1).add(LOG10_SQRT5)
+                .divide(LOG10_PHI, PRECISION)
+                .setScale(0, RoundingMode.CEILING)
+                .longValueExact();
+        n = Math.max(n, 1);
+
+        while (digitCount(n) < d) {
+            n++;
+        }
+        while (n > 1 && digitCount(n - 1) >= d) {
+            n--;
+        }
+        return n;
+    }
+
+    /**
+    *   @param n A non-negative index.
+    *   @param k Number of digits, from 1 to 18.
+    *   @return The last k digits of F(n), that is F(n) mod 10^k.
+    */
+    protected static long trailingDigits(long n, int k) {
+        checkDigits(k);
+        return fibonacciMod(n, Digits.POWERS_OF_TEN[k]);
+    }
+
+    /**
+    *   @param n A non-negative index.
+    *   @param k Number of digits, from 1 to 18.
+    *   @return The first k digits of F(n), or F(n) itself if it has at most k digits.
+    */
+    protected static long leadingDigits(long n, int k) {
+        checkNonNegative(n);
+        checkDigits(k);
+        if (n <= MAX_LONG_INDEX) {
+            long value = SMALL[(int) n];
+            int excess = Digits.count(value) - k;
+            return excess > 0 ? value / Digits.POWERS_OF_TEN[excess] : value;
+        }
+
+        // F(n) = 10^log, so its first k digits are floor(10^(frac(log) + k - 1)).
+        BigDecimal log = log10(n);
+        BigDecimal fraction = log.subtract(log.setScale(0, RoundingMode.FLOOR));
+        BigDecimal leading = exp(fraction.multiply(LN_10, PRECISION)).movePointRight(k - 1);
+        BigDecimal floor = leading.setScale(0, RoundingMode.FLOOR);
+
+        if (nearInteger(leading.subtract(floor))) {
+            BigInteger value = exact(n);
+            return value.divide(BigInteger.TEN.pow(value.toString().length() - k)).longValueExact();
+        }
+        return floor.longValueExact();
+    }
+
+    // n * log10(phi) - log10(sqrt(5)), within 10^-38 of log10 F(n) for n > 92.
+    private static BigDecimal log10(long n) {
+        return BigDecimal.valueOf(n).multiply(LOG10_PHI).subtract(LOG10_SQRT5);
+    }
+
+    // e^x by its Taylor series, for small non-negative x.
+    private static BigDecimal exp(BigDecimal x) {
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(PRECISION.getPrecision());
+        for (int i = 1; term.compareTo(epsilon) > 0; i++) {
+            term = term.multiply(x, PRECISION).divide(BigDecimal.valueOf(i), PRECISION);
+            sum = sum.add(term, PRECISION);
+        }
+        return sum;
+    }
+
+    // Whether a fractional part in [0, 1) is too close to 0 or 1 to trust.
+    private static boolean nearInteger(BigDecimal fraction) {
+        return fraction.compareTo(MARGIN) < 0 || BigDecimal.ONE.subtract(fraction).compareTo(MARGIN) < 0;
+    }
+
+    private static BigInteger exact(long n) {
+        if (n > Integer.MAX_VALUE) {
+            throw new ArithmeticException("F(" + n + ") is too close to a digit boundary to resolve");
+        }
+        return fibonacci((int) n);
+    }
+
+    private static void checkDigits(int k) {
+        if (k < 1 || k > 18) {
+            throw new IllegalArgumentException("Digit count must be from 1 to 18: " + k);
+        }
+    }
+
+    // F(n) and F(n + 1) mod m, by doubling from the top bit of n.
+    private static long[] pairMod(long n, long m) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Index must be non-negative: " + n);
+        }
+        if (m < 1) {
+            throw new IllegalArgumentException("Modulus must be positive: " + m);
+        }
+
+        long a = 0;
+        long b = 1 % m;
+        for (int i = 63 - Long.numberOfLeadingZeros(n); i >= 0; i--) {
+            long twoK = Utilities.mulMod(a, Utilities.addMod(b, Utilities.subtractMod(b, a, m), m), m);
+            long twoKPlusOne = Utilities.addMod(Utilities.mulMod(a, a, m), Utilities.mulMod(b, b, m), m);
+            if ((n >> i & 1) == 0) {
+                a = twoK;
+                b = twoKPlusOne;
+            } else {
+                a = twoKPlusOne;
+                b = Utilities.addMod(twoK, twoKPlusOne, m);
+            }
+        }
+        return new long[] {a, b};
+    }
+
+    // Period of the Fibonacci sequence mod q = p^e.
+    private static long primePowerPeriod(long p, int e, long q) {
+        long bound;
+        if (p == 2) {
+            bound = 3;
+        } else if (p == 5) {
+            bound = 20;
+        } else if (p % 5 == 1 || p % 5 == 4) {
+            bound = p - 1;
+        } else {
+            bound = Math.multiplyExact(2, p + 1);
+        }
+
+        Factorization factors = Factorizer.factorize(bound);
+        for (int j = 1; j < e; j++) {
+            bound = Math.multiplyExact(bound, p);
+        }
+
+        // Every prime dividing the bound: those of the prime's bound, and p.
+        long[] primes = factors.primes();
+        for (int j = 0; j <= primes.length; j++) {
+            long r = j < primes.length ? primes[j] : p;
+            while (bound % r == 0 && isPeriod(bound / r, q)) {
+                bound /= r;
+            }
+        }
+        return bound;
+    }
+
+    private static boolean isPeriod(long n, long m) {
+        long[] pair = pairMod(n, m);
+        return pair[0] == 0 && pair[1] == 1 % m;
+    }
+
+    private static void checkNonNegative(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Index must be non-negative: " + n);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package mathUtilities;
+
+/**
+*   Open addressing hash map from long keys to int values with linear probing.
+*   Keys and values live in primitive arrays, so nothing is boxed.
+*/
+class LongIntHashMap {
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int shift; // 64 - log2(capacity).
+
+    /**
+    *   @param expectedSize Number of keys the map should hold without resizing.
+    */
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+    *   @return The number of keys in the map.
+    */
+    protected int size() {
+        return size;
+    }
+
+    /**
+    *   @param key Key to look up.
+    *   @param missing Value returned when key is not in the map.
+    *   @return The value of key, or missing.
+    */
+    protected int get(long key, int missing) {
+        int mask = keys.length - 1;
+        for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return missing;
+    }
+
+    /**
+    *   Associates value with key, replacing any previous value.
+    *   @param key Key to store.
+    *   @param value Value to store.
+    */
+    protected void put(long key, int value) {
+        int mask = keys.length - 1;
+        int i = slot(key);
+
+        while (used[i]) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+
+        if (++size * 2 > keys.length) { // Keep the load factor at most 1/2.
+            resize();
+        }
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift); // Fibonacci hashing.
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        allocate(oldKeys.length * 2);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongIntHashMap[size=" + size + ", capacity=" + keys.length + "]";
+    }
+
+}
@@ -0,0 +1,208 @@
+package mathUtilities;
+
+/**
+*   Tables of the multiplicative functions d(n), sigma(n), phi(n) and mu(n)
+*   for every n from 1 to a limit, filled by one pass of a linear sieve.
+*   A table can be shared so that the per-number helpers in Utilities read
+*   from it instead of recomputing.
+*/
+class MultiplicativeTables {
+
+    private static volatile MultiplicativeTables shared;
+
+    private final int limit;
+    private final int[] divisorCount;
+    private final long[] divisorSum;
+    private final int[] totient;
+    private final byte[] mobius;
+
+    private MultiplicativeTables(int limit) {
+        this.limit = limit;
+        this.divisorCount = new int[limit + 1];
+        this.divisorSum = new long[limit + 1];
+        this.totient = new int[limit + 1];
+        this.mobius = new byte[limit + 1];
+    }
+
+    /**
+    *   Builds the tables for 1..limit.
+    *   For each m = i * p with p the smallest prime of m, the values follow
+    *   from those of i: either p is new to m and every function is multiplied
+    *   by its value at p, or p already divides i and only the p^e part changes.
+    *   @param limit The largest value to cover.
+    *   @return The filled tables.
+    */
+    protected static MultiplicativeTables build(int limit) {
+        if (limit < 1 || limit == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Limit out of range: " + limit);
+        }
+
+        MultiplicativeTables t = new MultiplicativeTables(limit);
+        int[] d = t.divisorCount;
+        long[] sigma = t.divisorSum;
+        int[] phi = t.totient;
+        byte[] mu = t.mobius;
+
+        // Power p^e of the smallest prime p of n, and the exponent e.
+        int[] smallestPower = new int[limit + 1];
+        byte[] smallestExponent = new byte[limit + 1];
+        int[] primes = new int[PrimeSieve.estimateCount(0, limit)];
+        int numPrimes = 0;
+
+        d[1] = 1;
+        sigma[1] = 1;
+        phi[1] = 1;
+        mu[1] = 1;
+
+        for (int i = 2; i <= limit; i++) {
+            if (d[i] == 0) { // i is prime.
+                primes[numPrimes++] = i;
+                d[i] = 2;
+                sigma[i] = i + 1L;
+                phi[i] = i - 1;
+                mu[i] = -1;
+                smallestPower[i] = i;
+                smallestExponent[i] = 1;
+            }
+
+            for (int j = 0; j < numPrimes; j++) {
+                int p = primes[j];
+                long product = (long) i * p;
+                if (product > limit) {
+                    break;
+                }
+                int m = (int) product;
+
+                if (i % p == 0) { // p is the smallest prime of i, so m = rest * p^(e + 1).
+                    int power = smallestPower[i];
+                    int rest = i / power;
+                    int e = smallestExponent[i] + 1;
+
+                    smallestPower[m] = power * p;
+                    smallestExponent[m] = (byte) e;
+                    d[m] = d[rest] * (e + 1);
+                    sigma[m] = sigma[rest] * ((power * (long) p * p - 1) / (p - 1));
+                    phi[m] = phi[i] * p;
+                    mu[m] = 0;
+                    break;
+                }
+
+                smallestPower[m] = p;
+                smallestExponent[m] = 1;
+                d[m] = d[i] * 2;
+                sigma[m] = sigma[i] * (p + 1);
+                phi[m] = phi[i] * (p - 1);
+                mu[m] = (byte) -mu[i];
+            }
+        }
+
+        return t;
+    }
+
+    /**
+    *   Makes tables the ones consulted by Utilities.numberOfDivisors,
+    *   Utilities.sumOfDivisors and Utilities.isAbundant.
+    *   @param tables Tables to share, or null to stop sharing.
+    */
+    protected static void share(MultiplicativeTables tables) {
+        shared = tables;
+    }
+
+    /**
+    *   @param n Value to look up.
+    *   @return The shared tables if they cover n, otherwise null.
+    */
+    protected static MultiplicativeTables covering(long n) {
+        MultiplicativeTables t = shared;
+        return (t != null && n >= 1 && n <= t.limit) ? t : null;
+    }
+
+    /**
+    *   @return The largest value covered.
+    */
+    protected int limit() {
+        return limit;
+    }
+
+    /**
+    *   @return d(n), the number of divisors of n including 1 and n.
+    */
+    protected int numberOfDivisors(int n) {
+        return divisorCount[n];
+    }
+
+    /**
+    *   @return sigma(n), the sum of all divisors of n including n.
+    */
+    protected long sumOfDivisors(int n) {
+        return divisorSum[n];
+    }
+
+    /**
+    *   @return sigma(n) - n, the sum of the proper divisors of n.
+    */
+    protected long sumOfProperDivisors(int n) {
+        return divisorSum[n] - n;
+    }
+
+    /**
+    *   @return phi(n), the number of integers in 1..n coprime to n.
+    */
+    protected int totient(int n) {
+        return totient[n];
+    }
+
+    /**
+    *   @return mu(n): 0 if n has a squared prime factor, otherwise (-1)^k for k distinct primes.
+    */
+    protected int mobius(int n) {
+        return mobius[n];
+    }
+
+    /**
+    *   @return Boolean indicating whether the proper divisors of n sum to more than n.
+    */
+    protected boolean isAbundant(int n) {
+        return divisorSum[n] - n > n;
+    }
+
+    /**
+    *   @return The divisor counts, indexed by n. Index 0 is unused.
+    */
+    protected int[] divisorCounts() {
+        return divisorCount.clone();
+    }
+
+    /**
+    *   @return The divisor sums sigma(n), indexed by n. Index 0 is unused.
+    */
+    protected long[] divisorSums() {
+        return divisorSum.clone();
+    }
+
+    /**
+    *   @return The proper divisor sums sigma(n) - n, indexed by n. Index 0 is unused.
+    */
+    protected long[] properDivisorSums() {
+        long[] answer = new long[limit + 1];
+        for (int n = 1; n <= limit; n++) {
+            answer[n] = divisorSum[n] - n;
+        }
+        return answer;
+    }
+
+    /**
+    *   @return Euler's totient phi(n), indexed by n. Index 0 is unused.
+    */
+    protected int[] totients() {
+        return totient.clone();
+    }
+
+    /**
+    *   @return The Mobius function mu(n), indexed by n. Index 0 is unused.
+    */
+    protected byte[] mobiusValues() {
+        return mobius.clone();
+    }
+
+}
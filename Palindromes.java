@@ -0,0 +1,146 @@
+package mathUtilities;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+*   Palindrome tests and generation without Strings.
+*   A number is tested by reversing only its lower half and comparing it with
+*   the upper half. Palindromes up to N are built from their first half, so
+*   there are about 2 * sqrt(N) of them to visit instead of N candidates.
+*/
+class Palindromes {
+
+    /**
+    *   @param n Integer to check.
+    *   @return Whether the decimal digits of n read the same both ways. Negative values are not.
+    */
+    protected static boolean isPalindrome(long n) {
+        return isPalindrome(n, 10);
+    }
+
+    /**
+    *   @param n Integer to check.
+    *   @param base Base from 2 to 36.
+    *   @return Whether the digits of n in base read the same both ways. Negative values are not.
+    */
+    protected static boolean isPalindrome(long n, int base) {
+        if (base < Character.MIN_RADIX || base > Character.MAX_RADIX) {
+            throw new IllegalArgumentException("Base must be between 2 and 36: " + base);
+        }
+        if (n < 0 || (n % base == 0 && n != 0)) {
+            return false; // A trailing zero would have to be a leading zero.
+        }
+
+        // Move digits from n onto half until half has caught up with n.
+        long half = 0;
+        while (n > half) {
+            half = half * base + n % base;
+            n /= base;
+        }
+
+        return n == half || n == half / base; // Odd lengths leave the middle digit on half.
+    }
+
+    /**
+    *   Binary palindrome test: the bits of n reversed and shifted down to
+    *   drop the leading zeros must give n back.
+    *   @param n Integer to check.
+    *   @return Whether n written in binary reads the same both ways. Negative values are not.
+    */
+    protected static boolean isBinaryPalindrome(long n) {
+        if (n <= 0) {
+            return n == 0;
+        }
+        return Long.reverse(n) >>> Long.numberOfLeadingZeros(n) == n;
+    }
+
+    /**
+    *   @param n Integer to check.
+    *   @return Whether n written in binary reads the same both ways. Negative values are not.
+    */
+    protected static boolean isBinaryPalindrome(int n) {
+        if (n <= 0) {
+            return n == 0;
+        }
+        return Integer.reverse(n) >>> Integer.numberOfLeadingZeros(n) == n;
+    }
+
+    /**
+    *   Calls action with every palindrome in [0, limit], from small to large.
+    *   Each palindrome of length k is its first ceil(k / 2) digits followed
+    *   by their mirror image.
+    *   @param limit Upper bound, inclusive.
+    *   @param action Receives each palindrome.
+    */
+    protected static void forEach(long limit, LongConsumer action) {
+        for (long n = 0; n <= Math.min(limit, 9); n++) {
+            action.accept(n);
+        }
+
+        for (int length = 2; length <= Digits.POWERS_OF_TEN.length; length++) {
+            if (Digits.POWERS_OF_TEN[length - 1] > limit) {
+                return;
+            }
+
+            int halfLength = (length + 1) / 2;
+            long shift = Digits.POWERS_OF_TEN[length - halfLength];
+            long first = Digits.POWERS_OF_TEN[halfLength - 1];
+            long last = Digits.POWERS_OF_TEN[halfLength] - 1;
+
+            for (long prefix = first; prefix <= last; prefix++) {
+                if (prefix > limit / shift) {
+                    return;
+                }
+
+                // The mirror drops the middle digit for odd lengths. Its trailing
+                // zeros become the leading zeros of the lower half.
+                long mirror = Digits.reverse(length % 2 == 0 ? prefix : prefix / 10);
+                long palindrome = prefix * shift + mirror;
+                if (palindrome > limit || palindrome < 0) { // Negative on overflow.
+                    return;
+                }
+                action.accept(palindrome);
+            }
+        }
+    }
+
+    /**
+    *   @param limit Upper bound, inclusive.
+    *   @return Every palindrome in [0, limit], from small to large.
+    */
+    protected static long[] palindromes(long limit) {
+        LongStream.Builder found = LongStream.builder();
+        forEach(limit, found);
+        return found.build().toArray();
+    }
+
+    /**
+    *   Finds the numbers in [0, limit] that are palindromes both in base 10
+    *   and in base. Only decimal palindromes are generated, so the other
+    *   base is tested about 2 * sqrt(limit) times.
+    *   @param limit Upper bound, inclusive.
+    *   @param base Second base, from 2 to 36.
+    *   @return The matches from small to large.
+    */
+    protected static long[] doubleBasePalindromes(long limit, final int base) {
+        final LongStream.Builder found = LongStream.builder();
+
+        if (base == 2) {
+            forEach(limit, n -> {
+                if (isBinaryPalindrome(n)) {
+                    found.accept(n);
+                }
+            });
+        } else {
+            forEach(limit, n -> {
+                if (isPalindrome(n, base)) {
+                    found.accept(n);
+                }
+            });
+        }
+
+        return found.build().toArray();
+    }
+
+}
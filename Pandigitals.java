@@ -0,0 +1,189 @@
+package mathUtilities;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+/**
+*   Pandigital tests and generation.
+*   A number is pandigital for start..end when it uses each of those digits
+*   exactly once and no other digit. Tests keep the digits seen in a 10 bit
+*   mask and stop at the first repeat or foreign digit. Generation walks the
+*   permutations of start..end with nextPermutation, so every candidate is a
+*   pandigital by construction, and a prefix filter can discard a whole block
+*   of permutations at once.
+*/
+class Pandigitals {
+
+    /**
+    *   Decides during generation whether the digits chosen so far can lead
+    *   anywhere. Called with the value of the first length digits; when
+    *   length is the full number of digits, prefix is the candidate itself.
+    */
+    protected interface PrefixFilter {
+        boolean accept(long prefix, int length);
+    }
+
+    private static final PrefixFilter ACCEPT_ALL = (prefix, length) -> true;
+
+    /**
+    *   @param n Integer to check.
+    *   @param start Smallest digit that must occur.
+    *   @param end Largest digit that must occur.
+    *   @return Whether n uses every digit from start to end exactly once and no other digit.
+    */
+    protected static boolean isPandigital(long n, int start, int end) {
+        checkDigits(start, end);
+        if (n < 0 || start > end) {
+            return false;
+        }
+
+        int expected = (1 << (end + 1)) - (1 << start);
+        int seen = 0;
+
+        do {
+            int bit = 1 << (n % 10);
+            if ((expected & bit) == 0 || (seen & bit) != 0) {
+                return false; // Foreign or repeated digit.
+            }
+            seen |= bit;
+            n /= 10;
+        } while (n > 0);
+
+        return seen == expected;
+    }
+
+    /**
+    *   Calls action with each pandigital for start..end that passes filter,
+    *   in ascending or descending order. Numbers with a leading zero are
+    *   not pandigital and are skipped.
+    *   @param start Smallest digit, 0 to 9.
+    *   @param end Largest digit, start to 9.
+    *   @param descending Whether to go from the largest down.
+    *   @param filter Checked on each prefix; a rejected prefix skips every permutation that starts with it.
+    *   @param action Receives each pandigital.
+    */
+    protected static void forEach(int start, int end, boolean descending, PrefixFilter filter, LongConsumer action) {
+        checkDigits(start, end);
+        if (start > end) {
+            return;
+        }
+
+        // Descending order is ascending order of the complements 9 - d.
+        int length = end - start + 1;
+        int[] keys = new int[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = descending ? 9 - end + i : start + i;
+        }
+
+        long[] prefixes = new long[length + 1];
+        int from = 0; // Prefixes shorter than this are unchanged since the last permutation.
+
+        do {
+            int k = from;
+            for (; k < length; k++) {
+                int digit = descending ? 9 - keys[k] : keys[k];
+                prefixes[k + 1] = prefixes[k] * 10 + digit;
+                if ((k == 0 && digit == 0 && length > 1) || !filter.accept(prefixes[k + 1], k + 1)) {
+                    break;
+                }
+            }
+
+            if (k == length) {
+                action.accept(prefixes[length]);
+            } else {
+                // Put the suffix after k in its last order, so the next
+                // permutation changes position k or earlier.
+                sortDescending(keys, k + 1);
+            }
+
+            from = Utilities.nextPermutationPivot(keys);
+        } while (from >= 0);
+    }
+
+    /**
+    *   @param start Smallest digit, 0 to 9.
+    *   @param end Largest digit, start to 9.
+    *   @param descending Whether to go from the largest down.
+    *   @return Every pandigital for start..end, in the requested order.
+    */
+    protected static long[] pandigitals(int start, int end, boolean descending) {
+        return pandigitals(start, end, descending, ACCEPT_ALL);
+    }
+
+    /**
+    *   @param start Smallest digit, 0 to 9.
+    *   @param end Largest digit, start to 9.
+    *   @param descending Whether to go from the largest down.
+    *   @param filter Test applied to each complete pandigital.
+    *   @return The pandigitals for start..end that pass filter, in the requested order.
+    */
+    protected static long[] pandigitals(int start, int end, boolean descending, final LongPredicate filter) {
+        final int length = end - start + 1;
+        return pandigitals(start, end, descending, (prefix, k) -> k < length || filter.test(prefix));
+    }
+
+    /**
+    *   @param start Smallest digit, 0 to 9.
+    *   @param end Largest digit, start to 9.
+    *   @param descending Whether to go from the largest down.
+    *   @param filter Checked on each prefix during generation.
+    *   @return The pandigitals for start..end whose prefixes all pass filter, in the requested order.
+    */
+    protected static long[] pandigitals(int start, int end, boolean descending, PrefixFilter filter) {
+        LongStream.Builder found = LongStream.builder();
+        forEach(start, end, descending, filter, found);
+        return found.build().toArray();
+    }
+
+    /**
+    *   Finds the pandigital primes for start..end. Every permutation has the
+    *   same digit sum, so when that sum is divisible by 3 all of them are and
+    *   nothing is generated. Otherwise only candidates ending in 1, 3, 7 or 9
+    *   reach the primality test.
+    *   @param start Smallest digit, 0 to 9.
+    *   @param end Largest digit, start to 9.
+    *   @param descending Whether to go from the largest down.
+    *   @return The primes, in the requested order.
+    */
+    protected static long[] pandigitalPrimes(int start, int end, boolean descending) {
+        checkDigits(start, end);
+        if (start > end) {
+            return new long[0];
+        }
+
+        final int length = end - start + 1;
+        int digitSum = (start + end) * length / 2;
+        if (digitSum % 3 == 0 && length > 1) { // The single digit 3 is the only exception.
+            return new long[0];
+        }
+
+        return pandigitals(start, end, descending, (prefix, k) -> {
+            if (k < length) {
+                return true;
+            }
+            long last = prefix % 10;
+            return (prefix < 10 || (last % 2 != 0 && last != 5)) && Utilities.isPrime(prefix);
+        });
+    }
+
+    private static void sortDescending(int[] keys, int from) {
+        // The suffix is short (at most 9 entries), so insertion sort is enough.
+        for (int i = from + 1; i < keys.length; i++) {
+            int key = keys[i];
+            int j = i - 1;
+            while (j >= from && keys[j] < key) {
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            keys[j + 1] = key;
+        }
+    }
+
+    private static void checkDigits(int start, int end) {
+        if (start < 0 || end > 9) {
+            throw new IllegalArgumentException("Digits must be between 0 and 9: " + start + ".." + end);
+        }
+    }
+
+}
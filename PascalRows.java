@@ -0,0 +1,217 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+*   Rows of Pascal's triangle, one after the other.
+*   Row n + 1 is computed from row n in place, right to left, so only one
+*   row is ever stored, and only its left half: C(n, r) = C(n, n - r). The
+*   half row never decreases, so counting the entries above a limit is a
+*   binary search for the first one that exceeds it.
+*
+*   Values are longs that saturate at a cap chosen by the caller: any entry
+*   that would exceed the cap is stored as the cap. Exact holds BigIntegers.
+*/
+class PascalRows {
+
+    private final long cap;
+    private long[] half = new long[16];
+    private int row;
+
+    /**
+    *   Starts at row 0.
+    *   @param cap Saturation value, at least 1. Entries above it are stored as cap.
+    */
+    PascalRows(long cap) {
+        if (cap < 1) {
+            throw new IllegalArgumentException("Cap must be positive: " + cap);
+        }
+        this.cap = cap;
+        this.half[0] = 1;
+    }
+
+    /**
+    *   @return The index n of the current row.
+    */
+    protected int row() {
+        return row;
+    }
+
+    /**
+    *   @return The saturation value.
+    */
+    protected long cap() {
+        return cap;
+    }
+
+    /**
+    *   Moves to the next row.
+    */
+    protected void next() {
+        int n = row;
+        int top = (n + 1) / 2;
+        if (top >= half.length) {
+            half = Arrays.copyOf(half, half.length * 2);
+        }
+
+        for (int k = top; k > 0; k--) {
+            long right = k <= n / 2 ? half[k] : half[n - k]; // C(n, k) by symmetry.
+            long left = half[k - 1];
+            half[k] = left > cap - right ? cap : left + right;
+        }
+        row++;
+    }
+
+    /**
+    *   @param r Index within the current row.
+    *   @return C(row, r) saturated at the cap, or 0 outside 0..row.
+    */
+    protected long get(int r) {
+        if (r < 0 || r > row) {
+            return 0;
+        }
+        return half[Math.min(r, row - r)];
+    }
+
+    /**
+    *   Counts the entries of the current row that exceed limit.
+    *   @param limit Threshold, below the cap so saturated entries still compare correctly.
+    *   @return The number of r with C(row, r) > limit.
+    */
+    protected int countAbove(long limit) {
+        if (limit >= cap) {
+            throw new IllegalArgumentException("Limit " + limit + " must be below the cap " + cap);
+        }
+
+        int first = firstAbove(limit);
+        return first < 0 ? 0 : row + 1 - 2 * first;
+    }
+
+    /**
+    *   @return Copy of the current row, saturated at the cap.
+    */
+    protected long[] toArray() {
+        long[] full = new long[row + 1];
+        for (int r = 0; r <= row; r++) {
+            full[r] = get(r);
+        }
+        return full;
+    }
+
+    /**
+    *   Counts the pairs (n, r) with n <= maxRow and C(n, r) > limit.
+    *   @param maxRow Last row, inclusive.
+    *   @param limit Threshold.
+    *   @return The number of entries above limit.
+    */
+    protected static long countAbove(int maxRow, long limit) {
+        if (limit == Long.MAX_VALUE) {
+            return 0;
+        }
+
+        PascalRows rows = new PascalRows(Math.max(limit + 1, 1));
+        long count = rows.countAbove(limit);
+        while (rows.row() < maxRow) {
+            rows.next();
+            count += rows.countAbove(limit);
+        }
+        return count;
+    }
+
+    // First index in the half row above limit, or -1.
+    private int firstAbove(long limit) {
+        int lo = 0;
+        int hi = row / 2 + 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (half[mid] > limit) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo > row / 2 ? -1 : lo;
+    }
+
+    /**
+    *   Same as PascalRows with exact BigInteger entries.
+    */
+    protected static class Exact {
+
+        private BigInteger[] half = new BigInteger[16];
+        private int row;
+
+        /**
+        *   Starts at row 0.
+        */
+        Exact() {
+            half[0] = BigInteger.ONE;
+        }
+
+        /**
+        *   @return The index n of the current row.
+        */
+        protected int row() {
+            return row;
+        }
+
+        /**
+        *   Moves to the next row.
+        */
+        protected void next() {
+            int n = row;
+            int top = (n + 1) / 2;
+            if (top >= half.length) {
+                half = Arrays.copyOf(half, half.length * 2);
+            }
+
+            for (int k = top; k > 0; k--) {
+                BigInteger right = k <= n / 2 ? half[k] : half[n - k];
+                half[k] = half[k - 1].add(right);
+            }
+            row++;
+        }
+
+        /**
+        *   @param r Index within the current row.
+        *   @return C(row, r), or 0 outside 0..row.
+        */
+        protected BigInteger get(int r) {
+            if (r < 0 || r > row) {
+                return BigInteger.ZERO;
+            }
+            return half[Math.min(r, row - r)];
+        }
+
+        /**
+        *   @param limit Threshold.
+        *   @return The number of r with C(row, r) > limit.
+        */
+        protected int countAbove(BigInteger limit) {
+            int lo = 0;
+            int hi = row / 2 + 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (half[mid].compareTo(limit) > 0) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo > row / 2 ? 0 : row + 1 - 2 * lo;
+        }
+
+        /**
+        *   @return Copy of the current row.
+        */
+        protected BigInteger[] toArray() {
+            BigInteger[] full = new BigInteger[row + 1];
+            for (int r = 0; r <= row; r++) {
+                full[r] = get(r);
+            }
+            return full;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+*   Groups values whose decimal digits are permutations of each other.
+*   Each value is reduced to its digit signature and bucketed in one pass, so
+*   N values take O(N) time instead of O(N^2) pairwise isPermutation calls.
+*/
+class PermutationGroups {
+
+    /**
+    *   Buckets values by digit signature.
+    *   @param values Non-negative values.
+    *   @return One array per signature. Groups appear in the order their first
+    *           member appears in values, and members keep their input order.
+    */
+    protected static long[][] group(long[] values) {
+        int[] groupOf = new int[values.length];
+        int[] groupSizes = new int[values.length];
+        int numGroups = 0;
+
+        LongIntHashMap ids = new LongIntHashMap(values.length);
+        for (int i = 0; i < values.length; i++) {
+            long signature = Digits.signature(values[i]);
+            int id = ids.get(signature, -1);
+            if (id < 0) {
+                id = numGroups++;
+                ids.put(signature, id);
+            }
+            groupOf[i] = id;
+            groupSizes[id]++;
+        }
+
+        long[][] groups = new long[numGroups][];
+        for (int g = 0; g < numGroups; g++) {
+            groups[g] = new long[groupSizes[g]];
+        }
+
+        int[] filled = new int[numGroups];
+        for (int i = 0; i < values.length; i++) {
+            int g = groupOf[i];
+            groups[g][filled[g]++] = values[i];
+        }
+
+        return groups;
+    }
+
+    /**
+    *   Buckets int values by digit signature. See group(long[]).
+    */
+    protected static long[][] group(int[] values) {
+        long[] wide = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            wide[i] = values[i];
+        }
+        return group(wide);
+    }
+
+    /**
+    *   Keeps only the groups with at least minSize members.
+    *   @param values Non-negative values.
+    *   @param minSize Smallest group size to return.
+    *   @return The matching groups, in the order described by group(long[]).
+    */
+    protected static long[][] groupsOfSize(long[] values, int minSize) {
+        long[][] groups = group(values);
+        int count = 0;
+
+        for (long[] g: groups) {
+            if (g.length >= minSize) {
+                groups[count++] = g;
+            }
+        }
+
+        return Arrays.copyOf(groups, count);
+    }
+
+    /**
+    *   Buckets BigInteger values by digit signature.
+    *   @param values Non-negative values, no digit occurring more than 63 times.
+    *   @return One list per signature, ordered as in group(long[]).
+    */
+    protected static List<List<BigInteger>> group(BigInteger[] values) {
+        List<List<BigInteger>> groups = new ArrayList<>();
+        LongIntHashMap ids = new LongIntHashMap(values.length);
+
+        for (BigInteger value: values) {
+            long signature = Digits.signature(value);
+            int id = ids.get(signature, -1);
+            if (id < 0) {
+                id = groups.size();
+                ids.put(signature, id);
+                groups.add(new ArrayList<BigInteger>());
+            }
+            groups.get(id).add(value);
+        }
+
+        return groups;
+    }
+
+}
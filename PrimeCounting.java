@@ -0,0 +1,203 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+
+/**
+*   Sublinear prime counting and prime summing.
+*   Lucy_Hedgehog's method keeps S(v) for the O(sqrt(x)) distinct values
+*   v = x / i and removes the multiples of each base prime p <= sqrt(x) in
+*   turn, for O(x^(3/4)) time and O(sqrt(x)) memory. No primes above sqrt(x)
+*   are ever generated.
+*   Source: Project Euler forum, problem 10 - Lucy_Hedgehog
+*/
+class PrimeCounting {
+
+    // 2^61 - 1, the second modulus used to recover the exact prime sum.
+    private static final long MERSENNE = (1L << 61) - 1;
+
+    /**
+    *   Counts the primes less than or equal to x.
+    *   This is the odd-only form of the recurrence. Only odd values are
+    *   stored, the large values are kept only for the rough numbers i (those
+    *   without a sieved prime factor) and the array is compacted as p
+    *   removes them. Primes up to x^(1/4) are sieved; the ones up to
+    *   sqrt(x) are then accounted for in one pass over pairs of roughs.
+    *   Divisions go through double, which is exact for x below 2^53.
+    *   @param x Upper bound, inclusive.
+    *   @return pi(x).
+    */
+    protected static long primeCount(long x) {
+        if (x < 3) {
+            return x < 2 ? 0 : 1;
+        }
+
+        int v = (int) Utilities.isqrt(x);
+        int s = (v + 1) / 2;
+        int[] smalls = new int[s];  // smalls[i] = odd survivors in (1, 2i + 1].
+        int[] roughs = new int[s];  // Odd numbers up to v without a sieved prime factor.
+        long[] larges = new long[s]; // larges[k] = odd survivors in (1, x / roughs[k]].
+        for (int i = 0; i < s; i++) {
+            smalls[i] = i;
+            roughs[i] = 2 * i + 1;
+            larges[i] = (x / (2 * i + 1) - 1) / 2;
+        }
+
+        boolean[] skip = new boolean[v + 1];
+        int pc = 0; // Odd primes sieved so far.
+        for (int p = 3; p <= v; p += 2) {
+            if (skip[p]) {
+                continue;
+            }
+            int q = p * p;
+            if ((long) q * q > x) {
+                break;
+            }
+            skip[p] = true;
+            for (int i = q; i <= v; i += 2 * p) {
+                skip[i] = true;
+            }
+
+            int ns = 0;
+            for (int k = 0; k < s; k++) {
+                int i = roughs[k];
+                if (skip[i]) {
+                    continue;
+                }
+                long d = (long) i * p;
+                long removed = d <= v ? larges[smalls[(int) (d >> 1)] - pc] : smalls[half(divide(x, d))];
+                larges[ns] = larges[k] - removed + pc;
+                roughs[ns++] = i;
+            }
+            s = ns;
+
+            for (int i = half(v), j = ((v / p) - 1) | 1; j >= p; j -= 2) {
+                int c = smalls[j >> 1] - pc;
+                for (int e = (j * p) >> 1; i >= e; i--) {
+                    smalls[i] -= c;
+                }
+            }
+            pc++;
+        }
+
+        // Remove the products of two roughs above x^(1/4).
+        larges[0] += (long) (s + 2 * (pc - 1)) * (s - 1) / 2;
+        for (int k = 1; k < s; k++) {
+            larges[0] -= larges[k];
+        }
+        for (int l = 1; l < s; l++) {
+            int q = roughs[l];
+            long m = x / q;
+            int e = smalls[half((int) (m / q))] - pc;
+            if (e < l + 1) {
+                break;
+            }
+            long t = 0;
+            for (int k = l + 1; k <= e; k++) {
+                t += smalls[half(divide(m, roughs[k]))];
+            }
+            larges[0] += t - (long) (e - l) * (pc + l - 1);
+        }
+
+        return larges[0] + 1; // And 2.
+    }
+
+    /**
+    *   Sums the primes less than or equal to x.
+    *   The sum passes 2^63 near x = 1.5 * 10^10, so the recurrence is run both
+    *   modulo 2^64 (plain long overflow) and modulo 2^61 - 1, and the exact
+    *   value is rebuilt with the Chinese remainder theorem. This is exact for
+    *   any sum below 2^125.
+    *   @param x Upper bound, inclusive.
+    *   @return The sum of all primes p <= x.
+    */
+    protected static BigInteger sumOfPrimes(long x) {
+        if (x < 2) {
+            return BigInteger.ZERO;
+        }
+
+        int r = (int) Utilities.isqrt(x);
+        long[] small = new long[r + 1];
+        long[] large = new long[r + 1];
+        long[] smallMod = new long[r + 1];
+        long[] largeMod = new long[r + 1];
+
+        for (int v = 1; v <= r; v++) {
+            small[v] = triangle(v) - 1;
+            smallMod[v] = subMod(triangleMod(v), 1);
+            large[v] = triangle(x / v) - 1;
+            largeMod[v] = subMod(triangleMod(x / v), 1);
+        }
+
+        for (int p: PrimeSieve.primes(r)) {
+            long before = small[p - 1];
+            long beforeMod = smallMod[p - 1];
+            long square = (long) p * p;
+            int end = (int) Math.min(r, x / square);
+
+            for (int i = 1; i <= end; i++) {
+                long ip = (long) i * p;
+                long next, nextMod;
+                if (ip <= r) {
+                    next = large[(int) ip];
+                    nextMod = largeMod[(int) ip];
+                } else {
+                    int v = (int) (x / ip);
+                    next = small[v];
+                    nextMod = smallMod[v];
+                }
+                large[i] -= p * (next - before);
+                largeMod[i] = subMod(largeMod[i], mulMod(p, subMod(nextMod, beforeMod)));
+            }
+
+            for (int v = r; v >= square; v--) {
+                small[v] -= p * (small[v / p] - before);
+                smallMod[v] = subMod(smallMod[v], mulMod(p, subMod(smallMod[v / p], beforeMod)));
+            }
+        }
+
+        // sum = a + 2^64 * k with k = (b - a) * (2^64)^-1 mod (2^61 - 1), and 2^64 = 8 = (2^58)^-1 there.
+        long a = large[1];
+        long b = largeMod[1];
+        long k = mulMod(subMod(b, Long.remainderUnsigned(a, MERSENNE)), 1L << 58);
+
+        BigInteger low = new BigInteger(Long.toUnsignedString(a));
+        return BigInteger.valueOf(k).shiftLeft(64).add(low);
+    }
+
+    // n / d for a quotient below 2^31. A correctly rounded double quotient
+    // truncates to the right value while n < 2^53.
+    private static int divide(long n, long d) {
+        return n < 1L << 53 ? (int) ((double) n / d) : (int) (n / d);
+    }
+
+    // Index of the odd number n in the odd-only arrays.
+    private static int half(int n) {
+        return (n - 1) >> 1;
+    }
+
+    // v * (v + 1) / 2 modulo 2^64.
+    private static long triangle(long v) {
+        return (v & 1) == 0 ? (v >>> 1) * (v + 1) : v * ((v + 1) >>> 1);
+    }
+
+    // v * (v + 1) / 2 modulo 2^61 - 1.
+    private static long triangleMod(long v) {
+        long half = (v & 1) == 0 ? v >>> 1 : (v + 1) >>> 1;
+        long other = (v & 1) == 0 ? v + 1 : v;
+        return mulMod(half % MERSENNE, other % MERSENNE);
+    }
+
+    private static long subMod(long a, long b) {
+        long d = a - b;
+        return d < 0 ? d + MERSENNE : d;
+    }
+
+    // a * b modulo 2^61 - 1 for a, b < 2^61 - 1, folding the high bits back in since 2^61 = 1.
+    private static long mulMod(long a, long b) {
+        long lo = a * b;
+        long hi = Utilities.unsignedMultiplyHigh(a, b);
+        long folded = (lo & MERSENNE) + ((lo >>> 61) | (hi << 3));
+        return folded >= MERSENNE ? folded - MERSENNE : folded;
+    }
+
+}
@@ -0,0 +1,156 @@
+package mathUtilities;
+
+import java.util.stream.IntStream;
+
+/**
+*   Digit replacement prime families.
+*   A mask selects digit positions (bit i is the digit worth 10^i) that all
+*   hold the same digit. Replacing that digit by d gives base + d * step, where
+*   step is the sum of 10^i over the mask, so every member is found with one
+*   multiply-add and a lookup in the shared prime table.
+*/
+class PrimeFamilies {
+
+    /**
+    *   Reports the family size of n for every mask of its digit positions.
+    *   @param n A positive integer.
+    *   @return Array indexed by mask. Masks whose positions hold different
+    *           digits, and mask 0, have size 0.
+    */
+    protected static int[] familySizes(int n) {
+        int length = digitCount(n);
+        prepareTable(length);
+
+        int[] sizes = new int[1 << length];
+        for (int mask = 1; mask < sizes.length; mask++) {
+            sizes[mask] = familySize(n, mask);
+        }
+        return sizes;
+    }
+
+    /**
+    *   Counts the primes obtained by writing each digit 0 to 9 into the
+    *   positions of mask. Replacements that would give a leading zero are skipped.
+    *   @param n A positive integer.
+    *   @param mask Digit positions to replace, bit i for the digit worth 10^i.
+    *   @return The number of primes in the family, or 0 if the masked digits differ.
+    */
+    protected static int familySize(int n, int mask) {
+        int length = digitCount(n);
+        if (mask == 0 || mask >>> length != 0) {
+            return 0;
+        }
+
+        int digit = -1;
+        long step = 0;
+        for (int i = 0; i < length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                int current = Digits.digitAt(n, i);
+                if (digit >= 0 && current != digit) {
+                    return 0;
+                }
+                digit = current;
+                step += Digits.POWERS_OF_TEN[i];
+            }
+        }
+
+        long base = n - digit * step;
+        int first = (mask >>> (length - 1)) != 0 ? 1 : 0; // No leading zero.
+        int count = 0;
+
+        for (int d = first; d <= 9; d++) {
+            if (Utilities.isPrime(base + d * step)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+    *   @param n A positive integer.
+    *   @return The largest family size over all masks of n.
+    */
+    protected static int maxFamilySize(int n) {
+        int length = digitCount(n);
+        int best = 0;
+
+        for (int mask = 1; mask < (1 << length); mask++) {
+            best = Math.max(best, familySize(n, mask));
+        }
+
+        return best;
+    }
+
+    /**
+    *   Finds the smallest prime in [lo, hi] that belongs to a family of at
+    *   least size primes. Candidates are checked in parallel, in order, and
+    *   the search stops once the smallest match is known.
+    *   @param lo Lower bound, inclusive.
+    *   @param hi Upper bound, inclusive.
+    *   @param size Required family size.
+    *   @return The smallest such prime, or -1 if there is none.
+    */
+    protected static int smallestMemberOfFamily(int lo, int hi, final int size) {
+        if (hi < lo) {
+            return -1;
+        }
+        prepareTable(digitCount(hi));
+
+        return IntStream.rangeClosed(Math.max(lo, 2), hi)
+                .parallel()
+                .filter(n -> Utilities.isPrime(n) && maxFamilySize(n) >= size)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    /**
+    *   Reports the largest family size of every candidate in [lo, hi], in parallel.
+    *   @param lo Lower bound, inclusive. Must be positive.
+    *   @param hi Upper bound, inclusive.
+    *   @return Array where index i holds maxFamilySize(lo + i).
+    */
+    protected static int[] maxFamilySizes(final int lo, int hi) {
+        if (lo < 1) {
+            throw new IllegalArgumentException("Lower bound must be positive: " + lo);
+        }
+        if (hi < lo) {
+            return new int[0];
+        }
+        prepareTable(digitCount(hi));
+
+        int[] sizes = new int[hi - lo + 1];
+        IntStream.range(0, sizes.length).parallel().forEach(i -> sizes[i] = maxFamilySize(lo + i));
+        return sizes;
+    }
+
+    /**
+    *   @param n A positive integer.
+    *   @return The mask of the positions that hold digit in n.
+    */
+    protected static int maskOf(int n, int digit) {
+        int mask = 0;
+        for (int i = 0; n > 0; i++, n /= 10) {
+            if (n % 10 == digit) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    // Digits.count, for positive values only.
+    private static int digitCount(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Value must be positive: " + n);
+        }
+        return Digits.count(n);
+    }
+
+    // Grow the shared table once up front so that every member is an O(1) lookup.
+    private static void prepareTable(int length) {
+        if (Digits.POWERS_OF_TEN[length] <= PrimeOracle.MAX_BOUND) {
+            PrimeOracle.getInstance().ensureCovers((int) Digits.POWERS_OF_TEN[length] - 1);
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+package mathUtilities;
+
+import java.util.*;
+
+/**
+*   Shared, lazily grown table of primes.
+*   Queries below the current bound are answered from an immutable bit set;
+*   larger values fall back to Miller-Rabin. The table is replaced, never
+*   modified, so readers need no locking.
+*/
+class PrimeOracle {
+
+    /**
+    *   The table never grows past this bound. There it holds a 16 MB odds-only
+    *   bit set and the 14,630,843 primes below 2^28 as ints, about 58 MB.
+    */
+    protected static final int MAX_BOUND = 1 << 28;
+
+    // isPrime only grows the table for values below this; above it Miller-Rabin is cheaper.
+    private static final int GROW_ON_QUERY = 1 << 22;
+
+    private static final int INITIAL_BOUND = 1 << 16;
+
+    private static final PrimeOracle INSTANCE = new PrimeOracle();
+
+    private volatile Table table;
+
+    private PrimeOracle() {
+        table = new Table(INITIAL_BOUND);
+    }
+
+    /**
+    *   @return The oracle shared by all prime helpers.
+    */
+    protected static PrimeOracle getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+    *   Checks whether n is prime. O(1) below the current bound.
+    *   @param n The number to be tested for primality.
+    *   @return Boolean indicating whether n is prime or not.
+    */
+    protected boolean isPrime(long n) {
+        if (n < 2) {
+            return false;
+        }
+
+        Table t = table;
+
+        if (n < t.bound) {
+            return t.isPrime((int) n);
+        }
+
+        if (n < GROW_ON_QUERY) {
+            return grow((int) n + 1).isPrime((int) n);
+        }
+
+        return Utilities.primalityTest(n);
+    }
+
+    /**
+    *   @return The current bound. Every value below it is answered from the table.
+    */
+    protected int bound() {
+        return table.bound;
+    }
+
+    /**
+    *   Grows the table so that it covers every value up to and including limit.
+    *   @param limit Value that must be covered. At most MAX_BOUND - 1.
+    */
+    protected void ensureCovers(int limit) {
+        if (limit >= MAX_BOUND) {
+            throw new IllegalArgumentException("Limit exceeds " + (MAX_BOUND - 1) + ": " + limit);
+        }
+        if (limit >= table.bound) {
+            grow(limit + 1);
+        }
+    }
+
+    /**
+    *   Returns the primes from 0 to limit inclusive.
+    *   Limits past MAX_BOUND are sieved directly and not cached.
+    *   @param limit The largest value to include.
+    *   @return A new array of primes sorted from small to large.
+    */
+    protected int[] primesUpTo(int limit) {
+        if (limit >= MAX_BOUND) {
+            return PrimeSieve.primes(limit);
+        }
+
+        ensureCovers(Math.max(limit, 0));
+        Table t = table;
+        return Arrays.copyOf(t.primes, t.countUpTo(limit));
+    }
+
+    /**
+    *   Returns a read-only view of the primes from 0 to limit inclusive.
+    *   Backed by the shared table, so nothing is copied.
+    *   @param limit The largest value to include.
+    *   @return List of primes sorted from small to large.
+    */
+    protected List<Integer> primeListUpTo(int limit) {
+        if (limit >= MAX_BOUND) {
+            return asList(PrimeSieve.primes(limit), -1);
+        }
+
+        ensureCovers(Math.max(limit, 0));
+        Table t = table;
+        return asList(t.primes, t.countUpTo(limit));
+    }
+
+    /**
+    *   Number of primes less than or equal to limit.
+    *   @param limit The largest value to include.
+    *   @return pi(limit).
+    */
+    protected int primeCount(int limit) {
+        if (limit >= MAX_BOUND) {
+            return (int) PrimeSieve.countPrimes(0, limit);
+        }
+
+        ensureCovers(Math.max(limit, 0));
+        return table.countUpTo(limit);
+    }
+
+    /**
+    *   Returns the prime at a zero based index, growing the table if needed.
+    *   @param index Index of the prime, 0 gives 2.
+    *   @return The prime at index.
+    */
+    protected int prime(int index) {
+        Table t = table;
+
+        while (index >= t.primes.length) {
+            if (t.bound >= MAX_BOUND) {
+                throw new IllegalArgumentException("Prime index out of range: " + index);
+            }
+            t = grow((int) Math.min((long) t.bound * 2, MAX_BOUND));
+        }
+
+        return t.primes[index];
+    }
+
+    private synchronized Table grow(int bound) {
+        Table t = table;
+
+        if (bound > t.bound) {
+            long doubled = (long) t.bound * 2;
+            t = new Table((int) Math.min(MAX_BOUND, Math.max(bound, doubled)));
+            table = t;
+        }
+
+        return t;
+    }
+
+    private static List<Integer> asList(final int[] primes, int size) {
+        final int length = size < 0 ? primes.length : size;
+
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                if (index >= length) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+                }
+                return primes[index];
+            }
+
+            @Override
+            public int size() {
+                return length;
+            }
+        };
+    }
+
+    /**
+    *   Immutable snapshot of all primes below bound, as a sorted array and an
+    *   odds-only bit set.
+    */
+    private static class Table {
+
+        final int bound;
+        final int[] primes;
+        final long[] oddPrimes;
+
+        Table(int bound) {
+            this.bound = bound;
+            this.primes = PrimeSieve.primes(bound - 1);
+            this.oddPrimes = new long[(bound >>> 7) + 1];
+
+            for (int i = 1; i < primes.length; i++) {
+                int index = primes[i] >>> 1;
+                oddPrimes[index >>> 6] |= 1L << index;
+            }
+        }
+
+        boolean isPrime(int n) {
+            if ((n & 1) == 0) {
+                return n == 2;
+            }
+            int index = n >>> 1;
+            return (oddPrimes[index >>> 6] & (1L << index)) != 0;
+        }
+
+        int countUpTo(int limit) {
+            int position = Arrays.binarySearch(primes, limit);
+            return position >= 0 ? position + 1 : -(position + 1);
+        }
+    }
+
+}
@@ -0,0 +1,531 @@
+package mathUtilities;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+*   Segmented sieve of Eratosthenes.
+*   Only odd numbers are stored, one bit each, and the range is processed in
+*   segments small enough to stay in the L1/L2 cache. Bounds are longs so
+*   ranges past Integer.MAX_VALUE can be sieved.
+*/
+class PrimeSieve {
+
+    /**
+    *   Number of odd values covered by one segment (32 KB of bits).
+    */
+    protected static final int SEGMENT_BITS = 1 << 18;
+
+    /**
+    *   Largest upper bound that can be sieved. The base primes up to the
+    *   square root of the bound must fit in an int.
+    */
+    protected static final long MAX_LIMIT = (long) Integer.MAX_VALUE * Integer.MAX_VALUE;
+
+    // Below this limit the base primes are found with a single, non-segmented sieve.
+    private static final int SIMPLE_LIMIT = 1 << 16;
+
+    /**
+    *   Generates all primes from 0 to upperLimit inclusive.
+    *   @param upperLimit The largest value to include.
+    *   @return Array of primes sorted from small to large.
+    *   @throws IllegalArgumentException if upperLimit is less than 0.
+    */
+    protected static int[] primes(int upperLimit) {
+        if (upperLimit < 0) {
+            throw new IllegalArgumentException("Negative size");
+        }
+
+        if (upperLimit < SIMPLE_LIMIT) {
+            return simplePrimes(upperLimit);
+        }
+
+        PrimeIterator it = new PrimeIterator(0, upperLimit);
+        int[] answer = new int[estimateCount(0, upperLimit)];
+        int size = 0;
+
+        while (it.hasNext()) {
+            if (size == answer.length) {
+                answer = Arrays.copyOf(answer, size + (size >>> 1) + 1);
+            }
+            answer[size++] = (int) it.nextLong();
+        }
+
+        return Arrays.copyOf(answer, size);
+    }
+
+    /**
+    *   Generates all primes in the range [lo, hi].
+    *   @param lo Lower bound of the range, inclusive.
+    *   @param hi Upper bound of the range, inclusive.
+    *   @return Array of primes sorted from small to large.
+    *   @throws IllegalArgumentException if lo is negative or hi exceeds MAX_LIMIT.
+    */
+    protected static long[] primes(long lo, long hi) {
+        PrimeIterator it = new PrimeIterator(lo, hi);
+        long[] answer = new long[estimateCount(lo, hi)];
+        int size = 0;
+
+        while (it.hasNext()) {
+            if (size == answer.length) {
+                answer = Arrays.copyOf(answer, size + (size >>> 1) + 1);
+            }
+            answer[size++] = it.nextLong();
+        }
+
+        return Arrays.copyOf(answer, size);
+    }
+
+    /**
+    *   Lazily iterates over the primes in the range [lo, hi]. Only one
+    *   segment is held in memory at a time.
+    *   @param lo Lower bound of the range, inclusive.
+    *   @param hi Upper bound of the range, inclusive.
+    *   @return Iterator returning the primes from small to large.
+    */
+    protected static PrimitiveIterator.OfLong iterator(long lo, long hi) {
+        return new PrimeIterator(lo, hi);
+    }
+
+    /**
+    *   Generates all primes in the range [lo, hi] on the common ForkJoinPool.
+    *   @param lo Lower bound of the range, inclusive.
+    *   @param hi Upper bound of the range, inclusive.
+    *   @return Array of primes sorted from small to large.
+    */
+    protected static long[] parallelPrimes(long lo, long hi) {
+        return parallelPrimes(lo, hi, ForkJoinPool.commonPool());
+    }
+
+    /**
+    *   Generates all primes in the range [lo, hi]. The range is split into
+    *   disjoint groups of segments which are sieved on pool using one shared
+    *   set of base primes. A counting pass fixes where each segment's primes
+    *   go, so the filling pass writes into the one answer array.
+    *   @param lo Lower bound of the range, inclusive.
+    *   @param hi Upper bound of the range, inclusive.
+    *   @param pool Pool to run the segment tasks on.
+    *   @return Array of primes sorted from small to large.
+    */
+    protected static long[] parallelPrimes(long lo, long hi, ForkJoinPool pool) {
+        checkRange(lo, hi);
+        if (hi < 2 || hi < lo) {
+            return new long[0];
+        }
+
+        long start = Math.max(lo, 3) | 1;
+        int offset = lo <= 2 ? 1 : 0; // Room for 2 at the front.
+        if (start > hi) {
+            return offset == 1 ? new long[] {2} : new long[0];
+        }
+
+        // First count the primes of every segment, then sieve again and
+        // write each segment straight to its place in the answer.
+        int[] base = basePrimes(Utilities.isqrt(hi));
+        long segments = segmentCount(start, hi);
+        int[] counts = new int[Math.toIntExact(segments)];
+        pool.invoke(new CountTask(base, start, hi, 0, segments, counts));
+
+        int[] offsets = new int[counts.length];
+        long total = offset;
+        for (int i = 0; i < counts.length; i++) {
+            offsets[i] = (int) total;
+            total += counts[i];
+        }
+
+        long[] answer = new long[Math.toIntExact(total)];
+        if (offset == 1) {
+            answer[0] = 2;
+        }
+        pool.invoke(new PrimesTask(base, start, hi, 0, segments, answer, offsets));
+        return answer;
+    }
+
+    /**
+    *   Counts the primes in the range [lo, hi] on the common ForkJoinPool
+    *   without storing them.
+    *   @param lo Lower bound of the range, inclusive.
+    *   @param hi Upper bound of the range, inclusive.
+    *   @return The number of primes p with lo <= p <= hi.
+    */
+    protected static long countPrimes(long lo, long hi) {
+        return countPrimes(lo, hi, ForkJoinPool.commonPool());
+    }
+
+    /**
+    *   Counts the primes in the range [lo, hi] without storing them. Each
+    *   segment is reduced to a count with Long.bitCount.
+    *   @param lo Lower bound of the range, inclusive.
+    *   @param hi Upper bound of the range, inclusive.
+    *   @param pool Pool to run the segment tasks on.
+    *   @return The number of primes p with lo <= p <= hi.
+    */
+    protected static long countPrimes(long lo, long hi, ForkJoinPool pool) {
+        checkRange(lo, hi);
+        if (hi < 2 || hi < lo) {
+            return 0;
+        }
+
+        long count = (lo <= 2) ? 1 : 0;
+        long start = Math.max(lo, 3) | 1;
+
+        if (start <= hi) {
+            count += pool.invoke(new CountTask(basePrimes(Utilities.isqrt(hi)), start, hi, 0, segmentCount(start, hi), null));
+        }
+
+        return count;
+    }
+
+    /**
+    *   Sieves the odd numbers start, start + 2, ..., start + 2 * (length - 1).
+    *   A set bit in bits marks a composite (or 1). Bits past length in the last
+    *   word are set as well so that ~bits only ever yields primes.
+    *   @param start Odd number represented by bit 0.
+    *   @param length Number of odd values to sieve.
+    *   @param bits Bit set to write to. Must hold at least length bits.
+    *   @param base All primes up to at least the square root of the last value.
+    */
+    protected static void sieveSegment(long start, int length, long[] bits, int[] base) {
+        int words = (length + 63) >>> 6;
+        Arrays.fill(bits, 0, words, 0L);
+
+        long end = start + 2L * (length - 1);
+
+        // Index 0 holds 2, which never has to be crossed off on odd numbers.
+        for (int i = 1; i < base.length; i++) {
+            long p = base[i];
+            long square = p * p;
+            if (square > end) {
+                break;
+            }
+
+            long first;
+            if (square >= start) {
+                first = square;
+            } else {
+                first = ((start + p - 1) / p) * p;
+                if ((first & 1) == 0) { // Skip to the next odd multiple.
+                    first += p;
+                }
+            }
+
+            for (long j = (first - start) >>> 1; j < length; j += p) {
+                bits[(int) (j >>> 6)] |= 1L << j;
+            }
+        }
+
+        if (start == 1) { // 1 is not prime.
+            bits[0] |= 1L;
+        }
+
+        if ((length & 63) != 0) {
+            bits[words - 1] |= -1L << length;
+        }
+    }
+
+    /**
+    *   Returns all primes up to and including limit. Used for the base primes of
+    *   a segmented sieve.
+    *   @param limit Largest value to include.
+    *   @return Array of primes sorted from small to large.
+    */
+    protected static int[] basePrimes(long limit) {
+        if (limit > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Base prime limit too large: " + limit);
+        }
+        return primes((int) limit);
+    }
+
+    /**
+    *   Upper estimate of the number of primes in [lo, hi], used to size arrays.
+    *   Never less than the true count when lo is 0.
+    */
+    protected static int estimateCount(long lo, long hi) {
+        if (hi < 2 || hi < lo) {
+            return 0;
+        }
+
+        // pi(x) < 1.26 x / ln x for x > 1 (Rosser and Schoenfeld).
+        double span = hi - Math.max(lo, 2) + 1;
+        double estimate = Math.min(1.26 * span / Math.log(Math.max(lo, 17)), 1.26 * hi / Math.log(Math.max(hi, 17))) + 16;
+        return (int) Math.min(estimate, Integer.MAX_VALUE - 8);
+    }
+
+    private static void checkRange(long lo, long hi) {
+        if (lo < 0) {
+            throw new IllegalArgumentException("Negative lower bound: " + lo);
+        }
+        if (hi > MAX_LIMIT) {
+            throw new IllegalArgumentException("Upper bound exceeds " + MAX_LIMIT + ": " + hi);
+        }
+    }
+
+    private static long segmentCount(long start, long hi) {
+        long odds = (hi - start) / 2 + 1;
+        return (odds + SEGMENT_BITS - 1) / SEGMENT_BITS;
+    }
+
+    // Odds-only bit sieve without segmentation, for small limits.
+    private static int[] simplePrimes(int limit) {
+        if (limit < 2) {
+            return new int[0];
+        }
+
+        int length = (limit - 1) / 2 + 1; // Odd values 1, 3, ..., up to limit.
+        long[] bits = new long[(length + 63) >>> 6];
+
+        for (int i = 1; ; i++) {
+            int p = 2 * i + 1;
+            if ((long) p * p > limit) {
+                break;
+            }
+            if ((bits[i >>> 6] & (1L << i)) == 0) {
+                for (int j = (p * p) >>> 1; j < length; j += p) {
+                    bits[j >>> 6] |= 1L << j;
+                }
+            }
+        }
+
+        int[] answer = new int[estimateCount(0, limit)];
+        int size = 0;
+        answer[size++] = 2;
+
+        for (int i = 1; i < length; i++) {
+            if ((bits[i >>> 6] & (1L << i)) == 0) {
+                answer[size++] = 2 * i + 1;
+            }
+        }
+
+        return Arrays.copyOf(answer, size);
+    }
+
+    /**
+    *   Walks the segments of a range and hands out the primes one at a time.
+    */
+    private static class PrimeIterator implements PrimitiveIterator.OfLong {
+
+        private final long hi;
+        private final int[] base;
+        private final long[] bits = new long[SEGMENT_BITS >>> 6];
+
+        private boolean pendingTwo;
+        private long segmentStart;
+        private int segmentLength;
+        private int word;
+        private long remaining;
+        private long next;
+
+        PrimeIterator(long lo, long hi) {
+            checkRange(lo, hi);
+
+            this.hi = hi;
+            this.base = basePrimes(Utilities.isqrt(Math.max(hi, 0)));
+            this.pendingTwo = lo <= 2 && hi >= 2;
+
+            // First odd value >= max(lo, 3); the segment is loaded on the first advance.
+            this.segmentStart = Math.max(lo, 3) | 1;
+            this.segmentLength = 0;
+            this.word = 0;
+            this.remaining = 0;
+            this.next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            long answer = next;
+            next = advance();
+            return answer;
+        }
+
+        private long advance() {
+            if (pendingTwo) {
+                pendingTwo = false;
+                return 2;
+            }
+
+            while (remaining == 0) {
+                word++;
+                if (word < (segmentLength + 63) >>> 6) {
+                    remaining = ~bits[word];
+                } else if (!nextSegment()) {
+                    return -1;
+                }
+            }
+
+            int bit = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            return segmentStart + 2L * ((word << 6) + bit);
+        }
+
+        private boolean nextSegment() {
+            long start = segmentStart + 2L * segmentLength;
+            if (start > hi) {
+                return false;
+            }
+
+            segmentStart = start;
+            segmentLength = (int) Math.min(SEGMENT_BITS, (hi - start) / 2 + 1);
+            sieveSegment(segmentStart, segmentLength, bits, base);
+            word = 0;
+            remaining = ~bits[0];
+            return true;
+        }
+    }
+
+    /**
+    *   Splits a run of segments in half until it is small enough to sieve
+    *   directly. Segment k starts at the odd value start + 2 * SEGMENT_BITS * k.
+    */
+    private abstract static class SegmentTask<T> extends RecursiveTask<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        // Number of segments sieved by one leaf task.
+        private static final long LEAF_SEGMENTS = 8;
+
+        final int[] base;
+        final long start;
+        final long hi;
+        final long fromSegment;
+        final long toSegment;
+
+        SegmentTask(int[] base, long start, long hi, long fromSegment, long toSegment) {
+            this.base = base;
+            this.start = start;
+            this.hi = hi;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+        }
+
+        @Override
+        protected T compute() {
+            if (toSegment - fromSegment <= LEAF_SEGMENTS) {
+                return leaf();
+            }
+
+            long middle = (fromSegment + toSegment) >>> 1;
+            SegmentTask<T> left = split(fromSegment, middle);
+            SegmentTask<T> right = split(middle, toSegment);
+            left.fork();
+            T rightResult = right.compute();
+            return merge(left.join(), rightResult);
+        }
+
+        long segmentStart(long segment) {
+            return start + 2L * SEGMENT_BITS * segment;
+        }
+
+        int segmentLength(long segmentStart) {
+            return (int) Math.min(SEGMENT_BITS, (hi - segmentStart) / 2 + 1);
+        }
+
+        abstract T leaf();
+
+        abstract SegmentTask<T> split(long from, long to);
+
+        abstract T merge(T left, T right);
+    }
+
+    // Writes the primes of each segment to answer, starting at offsets[segment].
+    private static class PrimesTask extends SegmentTask<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] answer;
+        private final int[] offsets;
+
+        PrimesTask(int[] base, long start, long hi, long fromSegment, long toSegment, long[] answer, int[] offsets) {
+            super(base, start, hi, fromSegment, toSegment);
+            this.answer = answer;
+            this.offsets = offsets;
+        }
+
+        @Override
+        Void leaf() {
+            long[] bits = new long[SEGMENT_BITS >>> 6];
+
+            for (long segment = fromSegment; segment < toSegment; segment++) {
+                long segmentStart = segmentStart(segment);
+                int length = segmentLength(segmentStart);
+                sieveSegment(segmentStart, length, bits, base);
+
+                int size = offsets[(int) segment];
+                for (int w = 0, words = (length + 63) >>> 6; w < words; w++) {
+                    long primes = ~bits[w];
+                    while (primes != 0) {
+                        answer[size++] = segmentStart + 2L * ((w << 6) + Long.numberOfTrailingZeros(primes));
+                        primes &= primes - 1;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        SegmentTask<Void> split(long from, long to) {
+            return new PrimesTask(base, start, hi, from, to, answer, offsets);
+        }
+
+        @Override
+        Void merge(Void left, Void right) {
+            return null;
+        }
+    }
+
+    // Counts primes; also records the count of each segment when counts is not null.
+    private static class CountTask extends SegmentTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] counts;
+
+        CountTask(int[] base, long start, long hi, long fromSegment, long toSegment, int[] counts) {
+            super(base, start, hi, fromSegment, toSegment);
+            this.counts = counts;
+        }
+
+        @Override
+        Long leaf() {
+            long[] bits = new long[SEGMENT_BITS >>> 6];
+            long count = 0;
+
+            for (long segment = fromSegment; segment < toSegment; segment++) {
+                long segmentStart = segmentStart(segment);
+                int length = segmentLength(segmentStart);
+                sieveSegment(segmentStart, length, bits, base);
+
+                int found = 0;
+                for (int w = 0, words = (length + 63) >>> 6; w < words; w++) {
+                    found += Long.bitCount(~bits[w]);
+                }
+                if (counts != null) {
+                    counts[(int) segment] = found;
+                }
+                count += found;
+            }
+
+            return count;
+        }
+
+        @Override
+        SegmentTask<Long> split(long from, long to) {
+            return new CountTask(base, start, hi, from, to, counts);
+        }
+
+        @Override
+        Long merge(Long left, Long right) {
+            return left + right;
+        }
+    }
+
+}
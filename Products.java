@@ -0,0 +1,142 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+*   Balanced product trees for exact BigInteger products.
+*   Multiplying factors one at a time makes BigInteger multiply a huge
+*   number by a small one over and over. A product tree multiplies numbers
+*   of similar size instead, and its halves are independent, so large trees
+*   are split over a ForkJoinPool. Factorials, Binomials and Fibonacci all
+*   multiply through here.
+*/
+class Products {
+
+    // Ranges with fewer factors than this are multiplied on one thread.
+    private static final int PARALLEL_THRESHOLD = 1 << 11;
+
+    // Ranges with fewer factors than this are multiplied in a loop.
+    private static final int LEAF_SIZE = 16;
+
+    /**
+    *   Product of a range of factors. Index i of the range is the i-th factor.
+    */
+    protected interface RangeProduct {
+        BigInteger product(int from, int to);
+    }
+
+    /**
+    *   Multiplies factors[from..to) as a balanced product tree.
+    *   @param factors Positive factors.
+    *   @param from First index, inclusive.
+    *   @param to Last index, exclusive.
+    *   @return The product.
+    */
+    protected static BigInteger product(long[] factors, int from, int to) {
+        if (to - from <= LEAF_SIZE) {
+            BigInteger product = BigInteger.ONE;
+            for (int i = from; i < to; i++) {
+                product = product.multiply(BigInteger.valueOf(factors[i]));
+            }
+            return product;
+        }
+
+        int mid = (from + to) >>> 1;
+        return product(factors, from, mid).multiply(product(factors, mid, to));
+    }
+
+    /**
+    *   Same as product, with large trees split over pool.
+    */
+    protected static BigInteger product(final long[] factors, int from, int to, ForkJoinPool pool) {
+        return product((f, t) -> product(factors, f, t), from, to, pool);
+    }
+
+    /**
+    *   Multiplies count odd numbers as a balanced product tree.
+    *   @param first First factor, odd and below 2^31.
+    *   @param count Number of factors.
+    *   @return first * (first + 2) * ... * (first + 2 * (count - 1)).
+    */
+    protected static BigInteger oddProduct(long first, int count) {
+        if (count <= LEAF_SIZE) {
+            BigInteger product = BigInteger.ONE;
+            int i = 0;
+            // Two factors below 2^31 fit in a long together.
+            for (; i + 1 < count; i += 2) {
+                long a = first + 2L * i;
+                product = product.multiply(BigInteger.valueOf(a * (a + 2)));
+            }
+            if (i < count) {
+                product = product.multiply(BigInteger.valueOf(first + 2L * i));
+            }
+            return product;
+        }
+
+        int half = count / 2;
+        return oddProduct(first, half).multiply(oddProduct(first + 2L * half, count - half));
+    }
+
+    /**
+    *   Same as oddProduct, with large trees split over pool.
+    */
+    protected static BigInteger oddProduct(final long first, int count, ForkJoinPool pool) {
+        return product((f, t) -> oddProduct(first + 2L * f, t - f), 0, count, pool);
+    }
+
+    /**
+    *   Multiplies the factors from..to of leaves, forking halves on pool
+    *   while a range is large enough to be worth a task.
+    *   @param leaves Sequential product of a range of factors.
+    *   @param from First index, inclusive.
+    *   @param to Last index, exclusive.
+    *   @param pool Pool to run the tasks on.
+    *   @return The product.
+    */
+    protected static BigInteger product(RangeProduct leaves, int from, int to, ForkJoinPool pool) {
+        if (to - from < PARALLEL_THRESHOLD) {
+            return leaves.product(from, to);
+        }
+        return pool.invoke(new ProductTask(leaves, from, to));
+    }
+
+    /**
+    *   Starts a * b on pool, for callers that have other work to do meanwhile.
+    *   @return The running multiplication; join it for the product.
+    */
+    protected static ForkJoinTask<BigInteger> multiplyAsync(final BigInteger a, final BigInteger b, ForkJoinPool pool) {
+        return pool.submit(() -> a.multiply(b));
+    }
+
+    private static class ProductTask extends RecursiveTask<BigInteger> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeProduct leaves;
+        private final int from;
+        private final int to;
+
+        ProductTask(RangeProduct leaves, int from, int to) {
+            this.leaves = leaves;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                return leaves.product(from, to);
+            }
+
+            int mid = (from + to) >>> 1;
+            ProductTask left = new ProductTask(leaves, from, mid);
+            left.fork();
+            BigInteger right = new ProductTask(leaves, mid, to).compute();
+            return left.join().multiply(right);
+        }
+    }
+
+}
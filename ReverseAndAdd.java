@@ -0,0 +1,283 @@
+package mathUtilities;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+*   Reverse-and-add iteration (n -> n + reverse(n)) and Lychrel candidates.
+*   Values live in a reusable byte buffer of decimal digits. One step adds
+*   each digit to its mirror in place and then propagates carries, so
+*   iterating allocates nothing however long the values grow.
+*
+*   Step counts of small values are remembered: once an iterate falls below
+*   the memo limit and its count is known, the rest of the walk is skipped.
+*/
+class ReverseAndAdd {
+
+    // Seeds per task in the parallel batch methods.
+    private static final int CHUNK = 1 << 12;
+
+    private final int maxIterations;
+
+    // memo[n] = steps from n to a palindrome, 0 while unknown. Racing writes
+    // from different threads store the same value, so no locking is needed.
+    private final byte[] memo;
+
+    /**
+    *   @param maxIterations Steps tried before a seed counts as Lychrel, 1 to 127.
+    *   @param memoLimit Values below this have their step counts remembered.
+    */
+    ReverseAndAdd(int maxIterations, int memoLimit) {
+        if (maxIterations < 1 || maxIterations > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Iterations must be between 1 and " + Byte.MAX_VALUE + ": " + maxIterations);
+        }
+        if (memoLimit < 0) {
+            throw new IllegalArgumentException("Memo limit must be non-negative: " + memoLimit);
+        }
+        this.maxIterations = maxIterations;
+        this.memo = new byte[memoLimit];
+    }
+
+    /**
+    *   Counts the reverse-and-add steps from seed to a palindrome. At least
+    *   one step is taken, so a palindromic seed still has to reach a new one.
+    *   @param seed A non-negative integer.
+    *   @return The number of steps, or -1 if none of the first maxIterations gave a palindrome.
+    */
+    protected int steps(long seed) {
+        return steps(seed, new Buffer());
+    }
+
+    /**
+    *   @param seed A non-negative integer.
+    *   @return Whether seed is a Lychrel candidate: no palindrome within maxIterations steps.
+    */
+    protected boolean isLychrel(long seed) {
+        return steps(seed) < 0;
+    }
+
+    /**
+    *   Computes steps for every seed in [lo, hi), in parallel. Each task
+    *   reuses one buffer for all of its seeds.
+    *   @param lo Lower bound, inclusive. Must be non-negative.
+    *   @param hi Upper bound, exclusive.
+    *   @return Array where index i holds steps(lo + i).
+    */
+    protected byte[] steps(final long lo, long hi) {
+        checkRange(lo, hi);
+
+        final byte[] answer = new byte[Math.toIntExact(hi - lo)];
+        int chunks = (answer.length + CHUNK - 1) / CHUNK;
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            Buffer buffer = new Buffer();
+            int end = Math.min(answer.length, (c + 1) * CHUNK);
+            for (int i = c * CHUNK; i < end; i++) {
+                answer[i] = (byte) steps(lo + i, buffer);
+            }
+        });
+
+        return answer;
+    }
+
+    /**
+    *   Counts the Lychrel candidates in [lo, hi), in parallel.
+    *   @param lo Lower bound, inclusive. Must be non-negative.
+    *   @param hi Upper bound, exclusive.
+    *   @return The number of seeds without a palindrome within maxIterations steps.
+    */
+    protected long countLychrel(final long lo, final long hi) {
+        checkRange(lo, hi);
+
+        long chunks = (hi - lo + CHUNK - 1) / CHUNK;
+
+        return IntStream.range(0, Math.toIntExact(chunks)).parallel().mapToLong(c -> {
+            Buffer buffer = new Buffer();
+            long start = lo + (long) c * CHUNK;
+            long end = Math.min(hi, start + CHUNK);
+            long count = 0;
+            for (long seed = start; seed < end; seed++) {
+                if (steps(seed, buffer) < 0) {
+                    count++;
+                }
+            }
+            return count;
+        }).sum();
+    }
+
+    private int steps(long seed, Buffer buffer) {
+        if (seed < memo.length && memo[(int) seed] != 0) {
+            return memo[(int) seed];
+        }
+
+        buffer.load(seed);
+        long[] path = buffer.path(maxIterations); // Iterates small enough to memoize.
+        int pathLength = 0;
+        int steps = -1;
+
+        for (int k = 1; k <= maxIterations; k++) {
+            buffer.reverseAndAdd();
+            if (buffer.isPalindrome()) {
+                steps = k;
+                break;
+            }
+
+            long value = buffer.valueBelow(memo.length);
+            if (value >= 0) {
+                int known = memo[(int) value];
+                if (known != 0) {
+                    steps = k + known <= maxIterations ? k + known : -1;
+                    break;
+                }
+                path[pathLength++] = (long) k << 32 | value; // memo.length fits in 31 bits.
+            }
+        }
+
+        if (steps > 0) {
+            if (seed < memo.length) {
+                memo[(int) seed] = (byte) steps;
+            }
+            // The iterate after step k is steps - k away from the same palindrome.
+            for (int i = 0; i < pathLength; i++) {
+                memo[(int) path[i]] = (byte) (steps - (int) (path[i] >>> 32));
+            }
+        }
+
+        return steps;
+    }
+
+    private static void checkRange(long lo, long hi) {
+        if (lo < 0 || hi < lo) {
+            throw new IllegalArgumentException("Invalid range [" + lo + ", " + hi + ")");
+        }
+    }
+
+    /**
+    *   A non-negative integer as a growable array of decimal digits, least
+    *   significant first.
+    */
+    protected static class Buffer {
+
+        private byte[] digits = new byte[32];
+        private int length;
+        private long[] path = new long[0]; // Scratch space for ReverseAndAdd.steps.
+
+        /**
+        *   Replaces the contents with n.
+        *   @param n A non-negative integer.
+        */
+        protected void load(long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Value must be non-negative: " + n);
+            }
+
+            length = 0;
+            do {
+                digits[length++] = (byte) (n % 10);
+                n /= 10;
+            } while (n > 0);
+        }
+
+        /**
+        *   Replaces the contents with n.
+        *   @param n A non-negative integer.
+        */
+        protected void load(BigInteger n) {
+            if (n.signum() < 0) {
+                throw new IllegalArgumentException("Value must be non-negative: " + n);
+            }
+
+            String str = n.toString();
+            ensureCapacity(str.length() + 1);
+            length = str.length();
+            for (int i = 0; i < length; i++) {
+                digits[i] = (byte) (str.charAt(length - 1 - i) - '0');
+            }
+        }
+
+        /**
+        *   Replaces n by n + reverse(n). Digit i and its mirror both become
+        *   their sum, then one pass from the bottom carries the tens up.
+        */
+        protected void reverseAndAdd() {
+            ensureCapacity(length + 1);
+
+            for (int i = 0, j = length - 1; i <= j; i++, j--) {
+                byte sum = (byte) (digits[i] + digits[j]);
+                digits[i] = sum;
+                digits[j] = sum;
+            }
+
+            int carry = 0;
+            for (int i = 0; i < length; i++) {
+                int value = digits[i] + carry;
+                carry = value >= 10 ? 1 : 0;
+                digits[i] = (byte) (value - 10 * carry);
+            }
+            if (carry != 0) {
+                digits[length++] = 1;
+            }
+        }
+
+        /**
+        *   @return Whether the digits read the same both ways.
+        */
+        protected boolean isPalindrome() {
+            for (int i = 0, j = length - 1; i < j; i++, j--) {
+                if (digits[i] != digits[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+        *   @return The number of digits.
+        */
+        protected int length() {
+            return length;
+        }
+
+        /**
+        *   @param limit Exclusive bound.
+        *   @return The value, or -1 if it is not below limit.
+        */
+        protected long valueBelow(long limit) {
+            if (length >= Digits.POWERS_OF_TEN.length || Digits.POWERS_OF_TEN[length - 1] >= limit) {
+                return -1;
+            }
+
+            long value = 0;
+            for (int i = length - 1; i >= 0; i--) {
+                value = value * 10 + digits[i];
+            }
+            return value < limit ? value : -1;
+        }
+
+        /**
+        *   @return The value as a BigInteger.
+        */
+        protected BigInteger toBigInteger() {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) ('0' + digits[length - 1 - i]);
+            }
+            return new BigInteger(new String(chars));
+        }
+
+        private long[] path(int capacity) {
+            if (path.length < capacity) {
+                path = new long[capacity];
+            }
+            return path;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > digits.length) {
+                digits = Arrays.copyOf(digits, Math.max(capacity, digits.length * 2));
+            }
+        }
+    }
+
+}
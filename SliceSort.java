@@ -0,0 +1,223 @@
+package mathUtilities;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+*   MSD radix sort for byte strings packed together, such as the words of
+*   WordScorer.Words. The bytes live in pages of PAGE_SIZE, so the packed
+*   data can pass 2 GB: byte k is pages[k >> PAGE_BITS][k & (PAGE_SIZE - 1)]
+*   and slice i is bytes offsets[i]..offsets[i + 1] - 1.
+*   Slices are compared as unsigned bytes, a prefix before any longer slice.
+*   The slices themselves never move: the sort permutes an int[] of indices,
+*   one counting pass per byte position, so no objects or comparators are
+*   involved. The sort is stable.
+*/
+class SliceSort {
+
+    /**
+    *   log2 of PAGE_SIZE.
+    */
+    protected static final int PAGE_BITS = 30;
+
+    /**
+    *   Bytes per page; every page but the last is full.
+    */
+    protected static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    // Ranges this small are finished with insertion sort.
+    private static final int INSERTION_THRESHOLD = 32;
+
+    // Key 0 marks a slice that has ended; byte b has key b + 1.
+    private static final int KEYS = 257;
+
+    /**
+    *   @param size Total number of bytes.
+    *   @return Pages holding size bytes, all full but the last.
+    */
+    protected static byte[][] allocatePages(long size) {
+        int count = (int) ((size + PAGE_SIZE - 1) >>> PAGE_BITS);
+        byte[][] pages = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            pages[i] = new byte[(int) Math.min(PAGE_SIZE, size - ((long) i << PAGE_BITS))];
+        }
+        return pages;
+    }
+
+    /**
+    *   Copies source[0..length) into the paged bytes, starting at position.
+    */
+    protected static void copy(byte[] source, int length, byte[][] pages, long position) {
+        int from = 0;
+        while (from < length) {
+            byte[] page = pages[(int) (position >>> PAGE_BITS)];
+            int at = (int) (position & (PAGE_SIZE - 1));
+            int count = Math.min(length - from, page.length - at);
+            System.arraycopy(source, from, page, at, count);
+            from += count;
+            position += count;
+        }
+    }
+
+    /**
+    *   @return The byte at position in the paged bytes.
+    */
+    protected static byte byteAt(byte[][] pages, long position) {
+        return pages[(int) (position >>> PAGE_BITS)][(int) (position & (PAGE_SIZE - 1))];
+    }
+
+    /**
+    *   @param data Packed bytes, in pages.
+    *   @param offsets Slice boundaries; slice i ends where slice i + 1 starts.
+    *   @return The slice indices in sorted order.
+    */
+    protected static int[] sort(byte[][] data, long[] offsets) {
+        int[] order = identity(offsets.length - 1);
+        sort(data, offsets, order, new int[order.length], 0, order.length, 0);
+        return order;
+    }
+
+    /**
+    *   Same result as sort. The slices are first bucketed by their leading
+    *   byte, then the buckets are sorted in parallel.
+    *   @param data Packed bytes, in pages.
+    *   @param offsets Slice boundaries; slice i ends where slice i + 1 starts.
+    *   @return The slice indices in sorted order.
+    */
+    protected static int[] parallelSort(final byte[][] data, final long[] offsets) {
+        final int[] order = identity(offsets.length - 1);
+        final int[] aux = new int[order.length];
+        final int[] bounds = distribute(data, offsets, order, aux, 0, order.length, 0);
+
+        IntStream.range(1, KEYS).parallel()
+                .filter(key -> bounds[key + 1] - bounds[key] > 1)
+                .forEach(key -> sort(data, offsets, order, aux, bounds[key], bounds[key + 1], 1));
+
+        return order;
+    }
+
+    /**
+    *   @param order Indices in sorted order, as returned by sort.
+    *   @return Array where index i holds the rank of slice i, starting at 1.
+    */
+    protected static int[] ranks(int[] order) {
+        int[] ranks = new int[order.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank + 1;
+        }
+        return ranks;
+    }
+
+    /**
+    *   @param values A value per slice.
+    *   @param order Indices in sorted order, as returned by sort.
+    *   @return The values rearranged into sorted order.
+    */
+    protected static int[] inOrder(int[] values, int[] order) {
+        int[] sorted = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = values[order[i]];
+        }
+        return sorted;
+    }
+
+    // Sorts order[lo..hi) whose slices agree on their first depth bytes. The
+    // pending ranges are kept on an explicit stack, as long shared prefixes
+    // would otherwise recurse once per byte.
+    private static void sort(byte[][] data, long[] offsets, int[] order, int[] aux, int lo, int hi, int depth) {
+        int[] stack = new int[3 * 64];
+        int top = 0;
+        stack[top++] = lo;
+        stack[top++] = hi;
+        stack[top++] = depth;
+
+        while (top > 0) {
+            int d = stack[--top];
+            int h = stack[--top];
+            int l = stack[--top];
+
+            if (h - l <= INSERTION_THRESHOLD) {
+                insertionSort(data, offsets, order, l, h, d);
+                continue;
+            }
+
+            int[] bounds = distribute(data, offsets, order, aux, l, h, d);
+            for (int key = 1; key < KEYS; key++) { // Slices that ended (key 0) are all equal.
+                if (bounds[key + 1] - bounds[key] > 1) {
+                    if (top + 3 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = bounds[key];
+                    stack[top++] = bounds[key + 1];
+                    stack[top++] = d + 1;
+                }
+            }
+        }
+    }
+
+    // One stable counting pass on byte depth over order[lo..hi). Returns the
+    // bucket bounds: key k now occupies order[bounds[k]..bounds[k + 1]).
+    private static int[] distribute(byte[][] data, long[] offsets, int[] order, int[] aux, int lo, int hi, int depth) {
+        int[] bounds = new int[KEYS + 1];
+        for (int i = lo; i < hi; i++) {
+            bounds[key(data, offsets, order[i], depth) + 1]++;
+        }
+
+        bounds[0] = lo;
+        for (int k = 0; k < KEYS; k++) {
+            bounds[k + 1] += bounds[k];
+        }
+
+        int[] next = new int[KEYS];
+        System.arraycopy(bounds, 0, next, 0, KEYS);
+        for (int i = lo; i < hi; i++) {
+            aux[next[key(data, offsets, order[i], depth)]++] = order[i];
+        }
+        System.arraycopy(aux, lo, order, lo, hi - lo);
+
+        return bounds;
+    }
+
+    private static void insertionSort(byte[][] data, long[] offsets, int[] order, int lo, int hi, int depth) {
+        for (int i = lo + 1; i < hi; i++) {
+            int slice = order[i];
+            int j = i - 1;
+            while (j >= lo && compare(data, offsets, order[j], slice, depth) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = slice;
+        }
+    }
+
+    // Compares slices a and b from byte depth on.
+    private static int compare(byte[][] data, long[] offsets, int a, int b, int depth) {
+        long i = offsets[a] + depth;
+        long j = offsets[b] + depth;
+        long endA = offsets[a + 1];
+        long endB = offsets[b + 1];
+
+        for (; i < endA && j < endB; i++, j++) {
+            int x = byteAt(data, i) & 0xFF;
+            int y = byteAt(data, j) & 0xFF;
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return Long.signum((endA - i) - (endB - j));
+    }
+
+    private static int key(byte[][] data, long[] offsets, int slice, int depth) {
+        long position = offsets[slice] + depth;
+        return position < offsets[slice + 1] ? (byteAt(data, position) & 0xFF) + 1 : 0;
+    }
+
+    private static int[] identity(int length) {
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+}
@@ -0,0 +1,182 @@
+package mathUtilities;
+
+/**
+*   Table of the smallest prime factor of every integer up to a limit, filled
+*   by a linear (Euler) sieve. Only odd numbers are stored; even numbers always
+*   have 2 as their smallest factor. With the table every query below factors
+*   n in O(log n) divisions and allocates nothing.
+*/
+class SmallestPrimeFactorSieve {
+
+    private final int limit;
+    private final int[] oddFactor; // oddFactor[i] is the smallest prime factor of 2i + 1.
+
+    /**
+    *   Builds the table for 1..limit.
+    *   @param limit The largest value that can be queried.
+    *   @throws IllegalArgumentException if limit is less than 1.
+    */
+    SmallestPrimeFactorSieve(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+
+        this.limit = limit;
+        this.oddFactor = new int[(limit - 1) / 2 + 1];
+        this.oddFactor[0] = 1;
+
+        int[] primes = new int[PrimeSieve.estimateCount(0, limit)];
+        int numPrimes = 0;
+
+        for (int i = 1; i < oddFactor.length; i++) {
+            int n = 2 * i + 1;
+
+            if (oddFactor[i] == 0) { // Not crossed off by a smaller prime.
+                oddFactor[i] = n;
+                primes[numPrimes++] = n;
+            }
+
+            // Every odd composite n * p is visited exactly once, through its smallest factor p.
+            int spf = oddFactor[i];
+            for (int j = 0; j < numPrimes; j++) {
+                int p = primes[j];
+                long multiple = (long) n * p;
+                if (p > spf || multiple > limit) {
+                    break;
+                }
+                oddFactor[(int) (multiple >>> 1)] = p;
+            }
+        }
+    }
+
+    /**
+    *   @return The largest value covered by this table.
+    */
+    protected int limit() {
+        return limit;
+    }
+
+    /**
+    *   @param n Value in 2..limit.
+    *   @return The smallest prime dividing n.
+    */
+    protected int smallestPrimeFactor(int n) {
+        check(n);
+        return spf(n);
+    }
+
+    /**
+    *   Checks whether n is prime.
+    *   @param n Value in 0..limit.
+    *   @return Boolean indicating whether n is prime or not.
+    */
+    protected boolean isPrime(int n) {
+        check(Math.max(n, 1));
+        return n >= 2 && spf(n) == n;
+    }
+
+    /**
+    *   Writes the prime factorization of n into the arrays supplied.
+    *   Ten entries are always enough for an int.
+    *   @param n Value in 1..limit.
+    *   @param primes Receives the distinct primes, from small to large.
+    *   @param exponents Receives the exponent of each prime.
+    *   @return The number of distinct primes written.
+    */
+    protected int factorize(int n, int[] primes, int[] exponents) {
+        check(n);
+        int count = 0;
+
+        while (n > 1) {
+            int p = spf(n);
+            int e = 0;
+            do {
+                n /= p;
+                e++;
+            } while (n % p == 0);
+
+            primes[count] = p;
+            exponents[count] = e;
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+    *   Count the number of distinct prime factors of an integer.
+    *   @param n Value in 1..limit.
+    *   @return The number of distinct primes n has.
+    */
+    protected int countDistinctPrimeFactors(int n) {
+        check(n);
+        int count = 0;
+
+        while (n > 1) {
+            int p = spf(n);
+            do {
+                n /= p;
+            } while (n % p == 0);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+    *   Number of divisors of n, including 1 and n.
+    *   @param n Value in 1..limit.
+    *   @return d(n), the product of (e + 1) over the prime powers p^e of n.
+    */
+    protected int numberOfDivisors(int n) {
+        check(n);
+        int divisors = 1;
+
+        while (n > 1) {
+            int p = spf(n);
+            int e = 0;
+            do {
+                n /= p;
+                e++;
+            } while (n % p == 0);
+            divisors *= e + 1;
+        }
+
+        return divisors;
+    }
+
+    /**
+    *   Sum of all divisors of n, including n itself.
+    *   @param n Value in 1..limit.
+    *   @return sigma(n), the product of (p^(e+1) - 1) / (p - 1) over the prime powers of n.
+    */
+    protected long sumOfDivisors(int n) {
+        check(n);
+        long sum = 1;
+
+        while (n > 1) {
+            int p = spf(n);
+            long term = 1;
+            long power = 1;
+            do {
+                n /= p;
+                power *= p;
+                term += power;
+            } while (n % p == 0);
+            sum *= term;
+        }
+
+        return sum;
+    }
+
+    private int spf(int n) {
+        return (n & 1) == 0 ? 2 : oddFactor[n >>> 1];
+    }
+
+    private void check(int n) {
+        if (n < 1 || n > limit) {
+            throw new IllegalArgumentException("Value outside 1.." + limit + ": " + n);
+        }
+    }
+
+}
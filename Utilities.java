@@ -45,33 +45,288 @@ class Utilities {
         System.out.println();
     }
 
+    // Primes used to filter out most composites before running Miller-Rabin.
+    private static final int[] SMALL_PRIMES = {
+        2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47, 53, 59, 61, 67, 71, 73, 79, 83, 89, 97
+    };
+
+    // Witnesses for n < 3,037,000,499. Deterministic up to 4,759,123,141.
+    private static final long[] SMALL_BASES = {2, 7, 61};
+
+    // Witnesses that make Miller-Rabin deterministic for every n < 2^64 (Jim Sinclair).
+    private static final long[] LONG_BASES = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+
     /**
     *   This method is used to test whether an integer is prime or not.
-    *   Source: Wikipedia Article - Primality Test
+    *   Small values are looked up in the shared PrimeOracle table, larger
+    *   ones go through primalityTest.
     *   @param n The number to be tested for primality.
     *   @return Boolean indicating whether n is prime or not.
     */
     protected static boolean isPrime(long n) {
-        if (n <= 1) { // Everything less than or equal to 1 is NOT prime.
+        return PrimeOracle.getInstance().isPrime(n);
+    }
+
+    /**
+    *   Tests an integer for primality without consulting any table.
+    *   Trial division by the primes below 100 is followed by a deterministic
+    *   Miller-Rabin test, so any long is checked in roughly constant time.
+    *   Source: Wikipedia Article - Miller-Rabin primality test
+    *   @param n The number to be tested for primality.
+    *   @return Boolean indicating whether n is prime or not.
+    */
+    protected static boolean primalityTest(long n) {
+        if (n < 2) { // Everything less than 2 is NOT prime.
             return false;
-        } else if (n <= 3) { // Will always equal either 2 or 3. Both are prime.
+        }
+
+        for (int p: SMALL_PRIMES) {
+            if (n % p == 0) {
+                return n == p;
+            }
+        }
+
+        if (n < 97 * 97) { // No factor below its square root.
             return true;
-        } else if (n % 2 == 0 || n % 3 == 0) { // If an integer is divisible by 2 or 3 it is NOT prime.
-            return false;
-        } 
+        }
 
-        int i = 5;
-        while(i * i <= n) {
-            if (n % i == 0 || n % (i+2) == 0) {
+        return millerRabin(n);
+    }
+
+    /**
+    *   Deterministic Miller-Rabin test for odd n with no factor below 100.
+    *   @param n The number to be tested for primality.
+    *   @return Boolean indicating whether n is prime or not.
+    */
+    protected static boolean millerRabin(long n) {
+        long d = n - 1;
+        int s = Long.numberOfTrailingZeros(d);
+        d >>= s;
+
+        // a * b cannot overflow below sqrt(Long.MAX_VALUE), so plain % is enough.
+        if (n < 3037000499L) {
+            witness: for (long a: SMALL_BASES) {
+                long x = powMod(a, d, n);
+                if (x == 1 || x == n - 1) {
+                    continue;
+                }
+                for (int r = 1; r < s; r++) {
+                    x = x * x % n;
+                    if (x == n - 1) {
+                        continue witness;
+                    }
+                }
                 return false;
-            } else {
-                i += 6;
             }
+            return true;
+        }
+
+        long inverse = montgomeryInverse(n);
+        long r2 = montgomeryR2(n);
+        long one = montgomeryMultiply(1, r2, n, inverse); // R mod n.
+        long minusOne = n - one;
+
+        witness: for (long a: LONG_BASES) {
+            a %= n;
+            if (a == 0) {
+                continue;
+            }
+
+            long x = montgomeryPow(montgomeryMultiply(a, r2, n, inverse), d, n, inverse, one);
+            if (x == one || x == minusOne) {
+                continue;
+            }
+            for (int r = 1; r < s; r++) {
+                x = montgomeryMultiply(x, x, n, inverse);
+                if (x == minusOne) {
+                    continue witness;
+                }
+            }
+            return false;
         }
 
         return true;
     }
 
+    /**
+    *   Calculates (a * b) mod m without overflowing, for any m > 0.
+    *   @param a First factor.
+    *   @param b Second factor.
+    *   @param m Modulus.
+    *   @return (a * b) mod m.
+    */
+    protected static long mulMod(long a, long b, long m) {
+        a = Math.floorMod(a, m);
+        b = Math.floorMod(b, m);
+
+        if (a < 3037000499L && b < 3037000499L) {
+            return a * b % m;
+        }
+
+        // Double and add. Sums stay below 2^64 so unsigned comparison is exact.
+        long result = 0;
+        while (b > 0) {
+            if ((b & 1) != 0) {
+                result += a;
+                if (Long.compareUnsigned(result, m) >= 0) {
+                    result -= m;
+                }
+            }
+            a += a;
+            if (Long.compareUnsigned(a, m) >= 0) {
+                a -= m;
+            }
+            b >>= 1;
+        }
+
+        return result;
+    }
+
+    /**
+    *   Calculates (a + b) mod m for a and b in [0, m). The sum may pass
+    *   Long.MAX_VALUE but stays below 2^64, so it is compared unsigned.
+    *   @param a First term.
+    *   @param b Second term.
+    *   @param m Modulus.
+    *   @return (a + b) mod m.
+    */
+    protected static long addMod(long a, long b, long m) {
+        long sum = a + b;
+        return Long.compareUnsigned(sum, m) >= 0 ? sum - m : sum;
+    }
+
+    /**
+    *   Calculates (a - b) mod m for a and b in [0, m).
+    *   @param a First term.
+    *   @param b Term to subtract.
+    *   @param m Modulus.
+    *   @return (a - b) mod m.
+    */
+    protected static long subtractMod(long a, long b, long m) {
+        long difference = a - b;
+        return difference < 0 ? difference + m : difference;
+    }
+
+    /**
+    *   Calculates (base ^ exponent) mod m by repeated squaring.
+    *   @param base The base.
+    *   @param exponent Non-negative exponent.
+    *   @param m Modulus.
+    *   @return (base ^ exponent) mod m.
+    */
+    protected static long powMod(long base, long exponent, long m) {
+        long result = 1 % m;
+        base = Math.floorMod(base, m);
+
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = mulMod(result, base, m);
+            }
+            base = mulMod(base, base, m);
+            exponent >>= 1;
+        }
+
+        return result;
+    }
+
+    /**
+    *   Returns the high 64 bits of the unsigned 128-bit product a * b.
+    *   Source: Hacker's Delight - Multiword Multiplication
+    */
+    protected static long unsignedMultiplyHigh(long a, long b) {
+        long aLo = a & 0xFFFFFFFFL, aHi = a >>> 32;
+        long bLo = b & 0xFFFFFFFFL, bHi = b >>> 32;
+
+        long loLo = aLo * bLo;
+        long hiLo = aHi * bLo;
+        long cross = (loLo >>> 32) + (hiLo & 0xFFFFFFFFL) + aLo * bHi;
+
+        return aHi * bHi + (hiLo >>> 32) + (cross >>> 32);
+    }
+
+    /**
+    *   Calculates n^-1 mod 2^64 for an odd n by Newton iteration.
+    *   @param n Odd modulus.
+    *   @return The inverse used by montgomeryMultiply.
+    */
+    protected static long montgomeryInverse(long n) {
+        long x = n; // Correct to 3 bits; each step doubles that.
+        for (int i = 0; i < 5; i++) {
+            x *= 2 - n * x;
+        }
+        return x;
+    }
+
+    /**
+    *   Calculates R^2 mod n with R = 2^64, used to move values into Montgomery form.
+    */
+    protected static long montgomeryR2(long n) {
+        long r = Long.remainderUnsigned(-n, n); // 2^64 mod n.
+        for (int i = 0; i < 64; i++) {
+            r += r;
+            if (Long.compareUnsigned(r, n) >= 0) {
+                r -= n;
+            }
+        }
+        return r;
+    }
+
+    /**
+    *   Montgomery product a * b * R^-1 mod n, for odd n < 2^63 and a, b < n.
+    *   @param a First factor in Montgomery form.
+    *   @param b Second factor in Montgomery form.
+    *   @param n Odd modulus.
+    *   @param inverse montgomeryInverse(n).
+    *   @return The product in Montgomery form.
+    */
+    protected static long montgomeryMultiply(long a, long b, long n, long inverse) {
+        long hi = unsignedMultiplyHigh(a, b);
+        long m = a * b * inverse;
+        long u = hi - unsignedMultiplyHigh(m, n);
+        return u < 0 ? u + n : u;
+    }
+
+    /**
+    *   Raises a value in Montgomery form to a power.
+    *   @param one R mod n, the Montgomery form of 1.
+    */
+    protected static long montgomeryPow(long base, long exponent, long n, long inverse, long one) {
+        long result = one;
+
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = montgomeryMultiply(result, base, n, inverse);
+            }
+            base = montgomeryMultiply(base, base, n, inverse);
+            exponent >>= 1;
+        }
+
+        return result;
+    }
+
+    /**
+    *   Calculates the integer square root, floor(sqrt(n)), without the rounding
+    *   errors of Math.sqrt on large longs.
+    *   @param n Non-negative value.
+    *   @return The largest r such that r * r <= n.
+    */
+    protected static long isqrt(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value: " + n);
+        }
+
+        long r = (long) Math.sqrt((double) n);
+
+        while (r * r > n) {
+            r--;
+        }
+        while ((r + 1) * (r + 1) <= n && (r + 1) * (r + 1) > 0) {
+            r++;
+        }
+
+        return r;
+    }
+
     /**
     *   This method is used to calculate the nth triangular number.
     *   @param n The index of the triangular number to be calculated.
@@ -83,10 +338,16 @@ class Utilities {
 
     /**
     *   This method is used to calculate the number of unique divisors an integer has.
+    *   Read from the shared MultiplicativeTables when they cover n.
     *   @param n The number whose unique divisors needs to be counted.
     *   @return The number of unique divisors the n has.
     */
     protected static int numberOfDivisors(int n) {
+        MultiplicativeTables tables = MultiplicativeTables.covering(n);
+        if (tables != null) {
+            return tables.numberOfDivisors(n);
+        }
+
         int numDivisors = 0;
 
         if (isPrime(n)) {
@@ -150,29 +411,33 @@ class Utilities {
     /**
     *   Used to calculate the number of possible paths through a grid.
     *   From one corner to another.
+    *   That is C(2n, n), see Binomials.
     *   @param n Ths size of the grid as in n*n.
     *   @return BigInteger The number of paths through the grid.
     */
     protected static BigInteger latticePaths(BigInteger n) {
-        
-        BigInteger num = factorial(n.multiply(BigInteger.valueOf(2))).divide(factorial(n).multiply(factorial(n)));
-        
-        return num;
+        int size = n.intValueExact();
+        return Binomials.binomial(Math.multiplyExact(size, 2), size);
     }
     
     /**
     *   This method is used to calculate the factorial of an integer(n!).
+    *   See Factorials for how it is computed.
     *   @param value The integer whose factorial value is needed.
     *   @return The factorial value of the integer passed in.
+    *   @throws ArithmeticException if value does not fit in an int.
     */
     protected static BigInteger factorial(BigInteger value) {
-        if (value.equals(BigInteger.ONE) || value.equals(BigInteger.ZERO)) return BigInteger.ONE;
-        return value.multiply( factorial(value.subtract(BigInteger.ONE)) );
+        return Factorials.factorial(value.intValueExact());
     }
 
+    /**
+    *   @param value A non-negative integer.
+    *   @return value! as a long.
+    *   @throws ArithmeticException if value! does not fit in a long, that is value > 20.
+    */
     protected static long factorial(int value) {
-        if (value == 1) return 1;
-        return value * factorial(value - 1);
+        return Factorials.longFactorial(value);
     }
 
     protected static int sumOfShortestPathTriangle(int triangle[][], int size) {
@@ -193,10 +458,20 @@ class Utilities {
 
     /**
     *   This method calculates the sum of the unique divisors of an integer.
+    *   Read from the shared MultiplicativeTables when they cover num.
     *   @param num Ths number whose divisor sum needs to be calculated.
     *   @return The sum of all unique divisors of num.
     */
     protected static int sumOfDivisors(int num) {
+        MultiplicativeTables tables = MultiplicativeTables.covering(num);
+        if (tables != null) {
+            return (int) tables.sumOfProperDivisors(num);
+        }
+
+        if (num <= 2) { // The loop below would count 2 as its own proper divisor.
+            return num - 1;
+        }
+
         // num / num = 1.
         // Since num itself isn't counted as part of the proper divisor sum.
         // sum is set to 1 to avoid checking whether the divisor being tested equals num.
@@ -215,14 +490,7 @@ class Utilities {
     }
 
     protected static int sumOfDigits(int num) {
-        String strRep[] = String.valueOf(num).split("");
-        int sum = 0;
-
-        for (String digit: strRep) {
-            sum += Integer.parseInt(digit);
-        }
-
-        return sum;
+        return Digits.sum(num);
     }
 
     /**
@@ -265,15 +533,25 @@ class Utilities {
 
     /**
     *   This method is used to test whether a number is abundant.
+    *   Read from the shared MultiplicativeTables when they cover num.
     *   @param num The number to be tested whether it is abundant or not.
     *   @return Boolean Indicates whether num is abundant or not.
     */
     protected static boolean isAbundant(int num) {
-        int sum = 0;
+        MultiplicativeTables tables = MultiplicativeTables.covering(num);
+        if (tables != null) {
+            return tables.isAbundant(num);
+        }
 
-        for (int i = 1; i < num; i++) {
+        long sum = num > 1 ? 1 : 0;
+
+        // Divisors come in pairs (i, num / i), so only i up to sqrt(num) is needed.
+        for (int i = 2; (long) i * i <= num; i++) {
             if (num % i == 0) {
                 sum += i;
+                if (num / i != i) {
+                    sum += num / i;
+                }
             }
         }
 
@@ -362,14 +640,7 @@ class Utilities {
     */
     protected static boolean isNarcissisticNumber(int n) {
 
-        String[] strRepresentation = String.valueOf(n).split("");
-        int sum = 0;
-
-        for (String a: strRepresentation) {
-            sum += Math.pow(Integer.valueOf(a), strRepresentation.length);
-        }
-
-        return sum == n;
+        return sumOfDigitsRaisedToPow(n, Digits.count(n)) == n;
 
     }
 
@@ -378,17 +649,28 @@ class Utilities {
     *   to a power provided.
     *   @param n The integer whose digits have to be raised to a power.
     *   @param power The power to which each digit of n is raised.
-    *   @return The sum of all digits after their raised to power.
+    *   @return The sum of all digits after their raised to power, or Integer.MAX_VALUE if it does not fit.
     */
     protected static int sumOfDigitsRaisedToPow(int n, int power) {
-        String[] strRepresentation = String.valueOf(n).split("");
-        int sum = 0;
-
-        for (String a: strRepresentation) {
-            sum += Math.pow(Integer.valueOf(a), power);
+        if (power >= 0 && power <= DigitPowers.MAX_POWER) {
+            return (int) Math.min(DigitPowers.powerSum(n, power), Integer.MAX_VALUE);
         }
 
-        return sum;
+        long sum = 0;
+
+        do {
+            long term = 1;
+            for (int digit = n % 10, i = 0; i < power; i++) {
+                term *= digit;
+                if (term > Integer.MAX_VALUE) {
+                    return Integer.MAX_VALUE;
+                }
+            }
+            sum += term;
+            n /= 10;
+        } while (n > 0);
+
+        return (int) Math.min(sum, Integer.MAX_VALUE);
     }
 
     /**
@@ -398,23 +680,7 @@ class Utilities {
     */
     protected static boolean isFactorion(long n) {
 
-        BigInteger sumFact = BigInteger.ZERO;
-
-        String[] strRep = String.valueOf(n).split("");
-        int[] digits = new int[strRep.length];
-
-        for (int i = 0; i < strRep.length; i++) {
-            digits[i] = Integer.valueOf(strRep[i]);
-        }
-
-        BigInteger temp = BigInteger.ZERO;
-        
-        for (int v: digits) {
-            temp = factorial(BigInteger.valueOf(v));
-            sumFact = sumFact.add(temp);
-        }
-
-        return sumFact.compareTo(BigInteger.valueOf(n)) == 0;
+        return DigitPowers.factorialSum(n) == n;
 
     }
 
@@ -470,20 +736,7 @@ class Utilities {
     *   @return Boolean value indicating whether n is a circular prime of not.
     */
     protected static boolean isCircularPrime(int n) {
-        if (!isPrime(n)) {
-            return false;
-        }
-
-        ArrayList<Integer> permutations = new ArrayList<>();
-
-        int temp = n;
-        while ((temp = rotateInteger(temp)) != n) {
-            if (!isPrime(temp)) {
-                return false;
-            }
-        }
-
-        return true;
+        return DigitPrimes.isCircularPrime(n);
     }
 
     /**
@@ -492,18 +745,7 @@ class Utilities {
     *   @return Rotated value of n.
     */
     protected static int rotateInteger(int n) {
-
-        StringBuilder num = new StringBuilder();
-        String[] strRep = String.valueOf(n).split("");
-
-        rotate(strRep, 1);
-        
-        for (String val: strRep) {
-            num.append(val);
-        }
-
-        return Integer.valueOf(num.toString());
-
+        return Math.toIntExact(DigitPrimes.rotate(n, Digits.count(n)));
     }
 
     /**
@@ -512,13 +754,14 @@ class Utilities {
     *   @return Reversed string of str.
     */
     protected static String reverseString(String str) {
-        String characters[] = str.split("");
-        StringBuilder reverse = new StringBuilder();
-        for (int i = characters.length - 1; i > -1; i--) {
-            reverse.append(characters[i]);
+        char[] characters = str.toCharArray();
+        for (int i = 0, j = characters.length - 1; i < j; i++, j--) {
+            char temp = characters[i];
+            characters[i] = characters[j];
+            characters[j] = temp;
         }
 
-        return reverse.toString();
+        return new String(characters);
     }
 
     /**
@@ -527,17 +770,23 @@ class Utilities {
     *   @return Boolean value indicating whether or not num is a palindrome.
     */
     protected static boolean isPalindrome(long num) {
-        String strRepresentation = String.valueOf(num);
-        return !!(strRepresentation.equals(reverseString(strRepresentation)));
+        return Palindromes.isPalindrome(num);
     }
 
     protected static boolean isPalindrome(String str) {
-        return !!(str.equals(reverseString(str)));
+        for (int i = 0, j = str.length() - 1; i < j; i++, j--) {
+            if (str.charAt(i) != str.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     protected static boolean isPalindrome(BigInteger num) {
-        String strRepresentation = num.toString();
-        return !!(strRepresentation.equals(reverseString(strRepresentation)));
+        if (num.bitLength() < 64) {
+            return Palindromes.isPalindrome(num.longValue());
+        }
+        return isPalindrome(num.toString());
     }
 
     /**
@@ -546,38 +795,22 @@ class Utilities {
     *   @return An array containing all fibonacci value below n;
     */
     protected static Long[] fibonacciSequenceBelow(int n) {
-        ArrayList<Long> sequence = new ArrayList<>();
-        long lo = 1, hi = 1;
-        sequence.add(0, lo);
-        sequence.add(1, hi);
-
-        for (int i = 3; (hi = lo + hi) < n; i++) {
-
-            sequence.add(i - 1, hi);
-            lo = hi - lo;
-            
+        long[] sequence = Fibonacci.sequenceBelow(n);
+        Long answer[] = new Long[sequence.length];
+        for (int i = 0; i < sequence.length; i++) {
+            answer[i] = sequence[i];
         }
-
-        System.out.println(sequence.toString());
-
-        Long answer[] = new Long[sequence.size()];
-        answer = sequence.toArray(answer);
-
         return answer;
-
     }
 
     /**
     *   Calculates the nth Fibonacci number.
-    *   @param index Index of the value to be calculated.
+    *   @param index Index of the value to be calculated, F(0) = 0 and F(1) = 1.
     *   @return The value at index in the Fibonacci sequence.
+    *   @throws ArithmeticException if the value does not fit in an int, that is index > 46.
     */
     protected static int nthFibonacciNumber(int index) {
-        if (index == 1 || index == 2) {
-            return 1;
-        }
-
-        return nthFibonacciNumber (index-1) + nthFibonacciNumber (index-2); // Tail recursion
+        return Math.toIntExact(Fibonacci.longFibonacci(index));
     }
 
     /**
@@ -588,14 +821,11 @@ class Utilities {
     *   @return long Altered integer.
     */
     protected static long removeDigitRight(long n) {
-        String strRep = String.valueOf(n);
-
-        if (strRep.length() <= 1) {
+        if (n < 10) {
             return -1;
         }
 
-        // parseInt(): returns an long. valueOf(): return an Long.
-        return Long.parseLong(strRep.substring(0, (strRep.length() - 1))); 
+        return n / 10;
     }
 
     /**
@@ -605,14 +835,11 @@ class Utilities {
     *   @param Altered version of n.
     */
     protected static long removeDigitLeft(long n) {
-        String strRep = String.valueOf(n);
-
-        if (strRep.length() <= 1) {
+        if (n < 10) {
             return -1;
         }
 
-        // parseInt(): returns a long. valueOf(): returns a Long.
-        return Long.parseLong(strRep.substring(1)); 
+        return n % Digits.POWERS_OF_TEN[Digits.count(n) - 1];
     }
 
     /**
@@ -663,39 +890,7 @@ class Utilities {
     *   @return Boolean Boolean indicating whether or not integer is pandigital for the range provided.
     */
     protected static boolean isPandigital(long num, int start, int end) {
-
-        String[] testSubject = String.valueOf(num).split("");
-
-        int[] answer = new int[10];
-        Arrays.fill(answer, 0);
-
-        for (String value: testSubject) {
-            answer[Integer.valueOf(value)]++;
-        }
-
-        if (start > 0) {
-            for (int i = 0; i < start; i++) {
-                if (answer[i] != 0) {
-                    return false;
-                }
-            }
-        } 
-
-        if (end < 9) {
-            for (int j = end + 1; j < 10; j++) {
-                if (answer[j] != 0) {
-                    return false;
-                }
-            }
-        }
-
-        for (int i = start; i <= end; i++) {
-            if (answer[i] != 1) {
-                return false;
-            }
-        }
-
-        return true;
+        return Pandigitals.isPandigital(num, start, end);
     }
 
     /**
@@ -736,7 +931,10 @@ class Utilities {
     }
 
     /**
-     *  Source: http://codereview.stackexchange.com/questions/29609/sieve-of-eratosthenes-in-java
+     *  Primes are served from the shared PrimeOracle table; limits past its
+     *  maximum are sieved directly by PrimeSieve. The result is a new
+     *  ArrayList the caller may modify; PrimeOracle.primeListUpTo gives a
+     *  read-only view without the copy.
      * @param upperLimit
      * @return a list of prime numbers from 0 to upperLimit inclusive
      * @throws IllegalArgumentException if upperLimit is less than 0 
@@ -746,27 +944,7 @@ class Utilities {
         if(upperLimit < 0) 
             throw new IllegalArgumentException("Negative size");
 
-        // at first all are numbers (0<=i<=n) not composite
-        boolean[] isComposite = new boolean[upperLimit + 1]; 
-        for (int i = 2; i * i <= upperLimit; i++) {
-            if (!isComposite [i]) {
-                // populate all multiples as composite numbers
-                for (int j = 2 * i; j <= upperLimit; j += i) {
-                    isComposite [j] = true;
-                }
-            }
-        }
-
-        List<Integer> primeList = new ArrayList<>();
-
-        // make a list of all non-composite numbers(prime numbers)
-        int arrLength = isComposite.length;
-        for(int index = 2; index < arrLength; index++) {
-            if(!isComposite[index]) {
-                primeList.add(new Integer(index));
-            }
-        }
-        return primeList;
+        return new ArrayList<>(PrimeOracle.getInstance().primeListUpTo(upperLimit));
     }
 
     /**
@@ -875,6 +1053,9 @@ class Utilities {
 
             if (sum < n) {
                 lastIndex++;
+                if (lastIndex >= primes.size()) {
+                    return -1;
+                }
                 sum += primes.get(lastIndex);
                 if (primes.get(lastIndex) > n) {
                     return -1;
@@ -889,6 +1070,17 @@ class Utilities {
 
     }
 
+    /**
+    *   This method finds the range of consecutive primes whose sum equals an
+    *   integer, using the primes of the shared PrimeOracle.
+    *   @param n The integer too look for.
+    *   @return The number of primes that make up n, or -1 if there is no such range.
+    */
+    protected static int findRangeOfPrimes(int n) {
+        ConsecutivePrimeSums.Run run = ConsecutivePrimeSums.covering(Math.max(n, 2)).runWithSum(n);
+        return run == null ? -1 : run.length;
+    }
+
     /**
     *   Checks whether one integer is a permutation of the other.
     *   @param a An integer to check.
@@ -896,54 +1088,46 @@ class Utilities {
     *   @return Boolean value indicating whether b is a permutation of a.
     */
     protected static boolean isPermutation(int a, int b) {
-        String[] strRepA = String.valueOf(a).split("");
-        String[] strRepB = String.valueOf(b).split("");
-        int[] checker = new int[10];
-        Arrays.fill(checker, 0);
-
-        for (int i = 0; i < strRepA.length; i++) {
-            checker[Integer.parseInt(strRepA[i])]++;
-        }
-
-        for (int i = 0; i < strRepB.length; i++) {
-            checker[Integer.parseInt(strRepB[i])]--;
-        }
-
-        for (int val: checker) {
-            if (val != 0) {
-                return false;
-            }
-        }
-
-        return true;
-
+        return Digits.signature(a) == Digits.signature(b);
     }
 
     /**
     *   Count the number of distinct prime factors of an integer.
     *   @param n An integer to factorize.
-    *   @param primes List of primes to check when factorizing.
+    *   @param primes Ignored; the primes of the shared PrimeOracle are used.
     *   @return The number of distinct primes n has.
+    *   @deprecated Use countDistinctPrimeFactors(int).
     */
+    @Deprecated
     protected static int countDistinctPrimeFactors(int n, List<Integer> primes) {
+        return countDistinctPrimeFactors(n);
+    }
 
+    /**
+    *   Count the number of distinct prime factors of an integer, dividing by
+    *   the primes of the shared PrimeOracle.
+    *   @param n An integer to factorize.
+    *   @return The number of distinct primes n has.
+    */
+    protected static int countDistinctPrimeFactors(int n) {
+        PrimeOracle oracle = PrimeOracle.getInstance();
         int temp = n;
-        List<Integer> primeFactors = new ArrayList<>();
-        //List<Integer> primes = generatePrimes(9099);
-
-        check: while (!isPrime(temp)) {
-            for (int i = 0; i < primes.size(); i++) {
-                if (temp % primes.get(i) == 0) {
-                    //System.out.println(temp);
-                    primeFactors.add(primes.get(i));
-                    temp /= primes.get(i);
-                } else if (i == primes.size() - 1) {
-                    break check;
+        int count = 0;
+
+        for (int i = 0; temp > 1; i++) {
+            int p = oracle.prime(i);
+            if ((long) p * p > temp) { // What remains is prime.
+                return count + 1;
+            }
+            if (temp % p == 0) {
+                count++;
+                while (temp % p == 0) {
+                    temp /= p;
                 }
             }
         }
-        return primeFactors.size();
 
+        return count;
     }
 
     /**
@@ -952,6 +1136,17 @@ class Utilities {
     *   @return Boolean value indicating whether or not the permutation was a success.
     */
     protected static boolean nextPermutation(int[] array) {
+        return nextPermutationPivot(array) >= 0;
+    }
+
+    /**
+    *   Same as nextPermutation, but reports where the new permutation starts
+    *   to differ from the old one.
+    *   @param array Array integers to permutate.
+    *   @return Index of the pivot, the first entry that changed, or -1 if
+    *           array already held the last permutation.
+    */
+    protected static int nextPermutationPivot(int[] array) {
         // Find the longest non-increasing suffix.
         int i = array.length - 1;
 
@@ -962,7 +1157,7 @@ class Utilities {
         // Now i is the head index of the suffix.
 
         // Are we at the last permutation already?
-        if (i <= 0) return false;
+        if (i <= 0) return -1;
 
         // Let array[i - 1] be the pivot.
         // Find the rightmost element that exceeds the pivot.
@@ -975,8 +1170,9 @@ class Utilities {
         // Assertion: j >= i
 
         // Swap the pivot with j.
-        int temp = array[i - 1];
-        array[i - 1] = array[j];
+        int pivot = i - 1;
+        int temp = array[pivot];
+        array[pivot] = array[j];
         array[j] = temp;
 
         // Reverse the suffix.
@@ -990,7 +1186,7 @@ class Utilities {
         }
 
         // Successfully computed the next permutation.
-        return true;
+        return pivot;
     }
 
     /**
@@ -1022,33 +1218,18 @@ class Utilities {
 
     /**
     *   Finds the number of primes when changing the repeating digit 
-    *   within a number.
+    *   within a number. See PrimeFamilies for searching every mask.
     *   @param n Number with repeating digit.
     *   @return The number of prime values created by permutating n.
     */
     protected static int numPrimesInFamily(int n) {
-        ArrayList<Integer> indicesOfRepeatingDigit = new ArrayList<>();
-        String[] strRep = String.valueOf(n).split("");
-        int familyTotal = 0;
         int repeatingDigit = repeatingNum(n);
 
-        for (int k = 0; k < strRep.length; k++) {
-            if (repeatingDigit == Integer.parseInt(strRep[k])) {
-                indicesOfRepeatingDigit.add(k);
-            }
-        }
-        
-        for (int j = 0; j < 10; j++) {
-            for (int i = 0; i < indicesOfRepeatingDigit.size(); i++) {
-                strRep[indicesOfRepeatingDigit.get(i)] = String.valueOf(j);
-            }
-
-            if (isPrime(intValue(strRep)) && !strRep[0].equals("0")) {
-                familyTotal++;
-            }
+        if (repeatingDigit < 0) {
+            return 0;
         }
 
-        return familyTotal;
+        return PrimeFamilies.familySize(n, PrimeFamilies.maskOf(n, repeatingDigit));
     }
 
     /**
@@ -1057,19 +1238,13 @@ class Utilities {
     *   @return The repeating digit within n.
     */
     protected static int repeatingNum(int n) {
-        String[] digits = String.valueOf(n).split("");
-        int[] numDigits = new int[10];
-        Arrays.fill(numDigits, 0);
-
-        for (int i = 0; i < digits.length; i++) {
-            numDigits[Integer.parseInt(digits[i])]++;
-        }
+        long histogram = Digits.histogram(n);
 
         int max = 0;
         int dig = 0;
-        for (int i = 0; i < numDigits.length; i++) {
-            if (numDigits[i] > max) {
-                max = numDigits[i];
+        for (int i = 0; i < 10; i++) {
+            if (Digits.count(histogram, i) > max) {
+                max = Digits.count(histogram, i);
                 dig = i;
             }
         }
@@ -1111,21 +1286,21 @@ class Utilities {
     *           digit occurs.
     */
     protected static Integer[] repeatingDigits(int n) {
-        String[] strRep = String.valueOf(n).split("");
-        int[] digitCount = new int[10];
-        Arrays.fill(digitCount, 0);
-
-        for (int i = 0; i < strRep.length; i++) {
-            digitCount[Integer.parseInt(strRep[i])]++;
-        }
+        long histogram = Digits.histogram(n);
+        int length = Digits.count(n);
+        int seen = 0; // Bit d is set once the indices of digit d have been added.
 
         ArrayList<Integer> answer = new ArrayList<>();
-        //answer.add(strRep.length);
-        for (int i = 0; i < strRep.length; i++) {
-            for (int j = i+1; j < strRep.length; j++) {
-                if (strRep[i].equals(strRep[j])) {
-                    if (!answer.contains(i)) answer.add(i);
-                    if (!answer.contains(j)) answer.add(j);
+        // Indices count from the left. The first time a repeating digit is met,
+        // every index holding it is added in order.
+        for (int i = 0; i < length; i++) {
+            int digit = Digits.digitAt(n, length - 1 - i);
+            if (Digits.count(histogram, digit) > 1 && (seen & (1 << digit)) == 0) {
+                seen |= 1 << digit;
+                for (int j = i; j < length; j++) {
+                    if (Digits.digitAt(n, length - 1 - j) == digit) {
+                        answer.add(j);
+                    }
                 }
             }
         }
@@ -1141,16 +1316,10 @@ class Utilities {
     *   @return Boolean value indicating whether n has any repeating digits.
     */
     protected static boolean hasRepeatingDigits(int n) {
-        String[] strRep = String.valueOf(n).split("");
-        int[] digitCount = new int[10];
-        Arrays.fill(digitCount, 0);
+        long histogram = Digits.histogram(n);
 
-        for (int i = 0; i < strRep.length; i++) {
-            digitCount[Integer.parseInt(strRep[i])]++;
-        }
-
-        for (int count: digitCount) {
-            if (count > 1) {
+        for (int i = 0; i < 10; i++) {
+            if (Digits.count(histogram, i) > 1) {
                 return true;
             }
         }
@@ -1166,9 +1335,7 @@ class Utilities {
     *   @return The number of possible combinations that can be made by selecting r from n.
     */
     protected static BigInteger numberOfCombinations(int n, int r) {
-        BigInteger numerator = factorial(BigInteger.valueOf(n));
-        BigInteger denominator = factorial(BigInteger.valueOf(r)).multiply(factorial(BigInteger.valueOf(n).subtract(BigInteger.valueOf(r))));
-        return numerator.divide(denominator);
+        return Binomials.binomial(n, r);
     }
 
     /**
@@ -1178,25 +1345,14 @@ class Utilities {
     *   @return The reverse value of n.
     */
     protected static long reverseLong(long n) {
-        String[] characters = String.valueOf(n).split("");
-
-        StringBuilder reverse = new StringBuilder();
-        for (int i = characters.length - 1; i > -1; i--) {
-            reverse.append(characters[i]);
-        }
-
-        return Long.parseLong(reverse.toString());
+        return Digits.reverse(n);
     }
 
     protected static BigInteger reverseBigInteger(BigInteger n) {
-        String[] characters = n.toString().split("");
-
-        StringBuilder reverse = new StringBuilder();
-        for (int i = characters.length - 1; i > -1; i--) {
-            reverse.append(characters[i]);
+        if (n.bitLength() < 63 && n.signum() >= 0 && n.compareTo(BigInteger.valueOf(Digits.POWERS_OF_TEN[18])) < 0) {
+            return BigInteger.valueOf(Digits.reverse(n.longValue()));
         }
-
-        return new BigInteger(reverse.toString());
+        return new BigInteger(reverseString(n.toString()));
     }
 
 }
\ No newline at end of file
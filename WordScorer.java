@@ -0,0 +1,349 @@
+package mathUtilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+*   Scores the words of large ASCII files, such as quoted CSV name lists or
+*   one word per line, without creating Strings.
+*   A word is a run of ASCII letters; every other byte separates words. The
+*   value of a word is the sum of its letter positions in the alphabet, the
+*   same as Utilities.valueOfWord, computed straight from the bytes as
+*   (b | 0x20) - 96.
+*
+*   The file is memory mapped and cut into chunks that are parsed in
+*   parallel. A word belongs to the chunk holding its first letter, so a
+*   chunk skips a word running in from the previous chunk and reads past its
+*   own end to finish its last word.
+*/
+class WordScorer {
+
+    /**
+    *   Nominal bytes per chunk.
+    */
+    protected static final int CHUNK_SIZE = 1 << 24;
+
+    /**
+    *   Longest word a chunk will read past its end to finish.
+    */
+    protected static final int MAX_WORD_LENGTH = 1 << 20;
+
+    /**
+    *   Words of a file, in file order, with their letters packed together
+    *   and folded to upper case. The letters are held in SliceSort pages with
+    *   long offsets, so they may add up to more than 2 GB.
+    */
+    protected static class Words {
+
+        private final byte[][] letters;
+        private final long[] offsets; // Word i is letters offsets[i]..offsets[i + 1] - 1.
+        private final int[] values;
+
+        Words(byte[][] letters, long[] offsets, int[] values) {
+            this.letters = letters;
+            this.offsets = offsets;
+            this.values = values;
+        }
+
+        /**
+        *   @return The number of words.
+        */
+        protected int size() {
+            return values.length;
+        }
+
+        /**
+        *   @param i Index of a word.
+        *   @return The value of word i.
+        */
+        protected int value(int i) {
+            return values[i];
+        }
+
+        /**
+        *   @param i Index of a word.
+        *   @return The number of letters in word i.
+        */
+        protected int length(int i) {
+            return (int) (offsets[i + 1] - offsets[i]);
+        }
+
+        /**
+        *   @param i Index of a word.
+        *   @param k Position within the word.
+        *   @return Letter k of word i, in upper case.
+        */
+        protected byte letterAt(int i, int k) {
+            return SliceSort.byteAt(letters, offsets[i] + k);
+        }
+
+        /**
+        *   Compares word i and word j alphabetically, a prefix first.
+        */
+        protected int compare(int i, int j) {
+            int length = Math.min(length(i), length(j));
+
+            for (int k = 0; k < length; k++) {
+                byte a = letterAt(i, k);
+                byte b = letterAt(j, k);
+                if (a != b) {
+                    return a - b;
+                }
+            }
+            return length(i) - length(j);
+        }
+
+        /**
+        *   @return Copy of the word values, in file order.
+        */
+        protected int[] values() {
+            return values.clone();
+        }
+
+        /**
+        *   Sorts the words alphabetically with SliceSort.parallelSort.
+        *   @return The word indices in alphabetical order.
+        */
+        protected int[] sortedOrder() {
+            return SliceSort.parallelSort(letters, offsets);
+        }
+    }
+
+    /**
+    *   @param bytes ASCII bytes.
+    *   @param from First index, inclusive.
+    *   @param to Last index, exclusive.
+    *   @return The value of the letters in bytes[from..to). Other bytes count as 0.
+    */
+    protected static int valueOf(byte[] bytes, int from, int to) {
+        int sum = 0;
+        for (int i = from; i < to; i++) {
+            if (isLetter(bytes[i])) {
+                sum += (bytes[i] | 0x20) - 96;
+            }
+        }
+        return sum;
+    }
+
+    /**
+    *   Sums the values of all words in file, in parallel. Nothing but the
+    *   running totals is kept.
+    *   @param file An ASCII file.
+    *   @return The sum of the word values.
+    *   @throws IOException if the file cannot be read.
+    */
+    protected static long totalValue(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            return IntStream.range(0, chunkCount(size)).parallel()
+                    .mapToLong(c -> parse(channel, size, c, null))
+                    .sum();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+    *   Reads every word of file, parsing chunks in parallel.
+    *   @param file An ASCII file.
+    *   @return The words in file order.
+    *   @throws IOException if the file cannot be read.
+    */
+    protected static Words read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final WordBuilder[] chunks = new WordBuilder[chunkCount(size)];
+
+            IntStream.range(0, chunks.length).parallel().forEach(c -> {
+                chunks[c] = new WordBuilder();
+                parse(channel, size, c, chunks[c]);
+            });
+
+            return WordBuilder.concat(chunks);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+    *   Sorts the words of file alphabetically with a radix sort and sums
+    *   value * rank, the first word having rank 1.
+    *   @param file An ASCII file.
+    *   @return The weighted total.
+    *   @throws IOException if the file cannot be read.
+    */
+    protected static long weightedTotal(Path file) throws IOException {
+        return weightedTotal(read(file));
+    }
+
+    /**
+    *   @param words Words to rank.
+    *   @return The sum of value * rank over words sorted alphabetically, ranks starting at 1.
+    */
+    protected static long weightedTotal(Words words) {
+        int[] order = words.sortedOrder();
+
+        long total = 0;
+        for (int rank = 1; rank <= order.length; rank++) {
+            total += (long) rank * words.value(order[rank - 1]);
+        }
+        return total;
+    }
+
+    /**
+    *   Ranks the words of file alphabetically.
+    *   @param file An ASCII file.
+    *   @return Array where index i holds the rank of the i-th word of the file, starting at 1.
+    *   @throws IOException if the file cannot be read.
+    */
+    protected static int[] ranks(Path file) throws IOException {
+        return SliceSort.ranks(read(file).sortedOrder());
+    }
+
+    /**
+    *   @param file An ASCII file.
+    *   @return The word values in alphabetical order of their words.
+    *   @throws IOException if the file cannot be read.
+    */
+    protected static int[] sortedValues(Path file) throws IOException {
+        Words words = read(file);
+        return SliceSort.inOrder(words.values, words.sortedOrder());
+    }
+
+    // Parses the words that start in chunk c. Records them in words when it
+    // is not null and returns the sum of their values.
+    private static long parse(FileChannel channel, long size, int c, WordBuilder words) {
+        long start = (long) c * CHUNK_SIZE;
+        long end = Math.min(size, start + CHUNK_SIZE);
+
+        // Map one byte before the chunk to see whether a word runs into it, and
+        // enough past the end to finish the last word.
+        long from = Math.max(0, start - 1);
+        long length = Math.min(size, end + MAX_WORD_LENGTH) - from;
+
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int i = (int) (start - from);
+        int stop = (int) (end - from);
+        int limit = buffer.limit();
+
+        if (start > 0 && isLetter(buffer.get(i - 1))) {
+            while (i < limit && isLetter(buffer.get(i))) {
+                i++; // The previous chunk owns this word.
+            }
+        }
+
+        long total = 0;
+        while (i < stop) {
+            byte b = buffer.get(i);
+            if (!isLetter(b)) {
+                i++;
+                continue;
+            }
+
+            int value = 0;
+            if (words != null) {
+                words.startWord();
+            }
+            while (i < limit && isLetter(b = buffer.get(i))) {
+                value += (b | 0x20) - 96;
+                if (words != null) {
+                    words.addLetter((byte) (b & 0xDF));
+                }
+                i++;
+            }
+
+            if (i == limit && from + limit < size) {
+                throw new UncheckedIOException(new IOException("Word at byte " + (from + i) + " is too long"));
+            }
+            if (words != null) {
+                words.endWord(value);
+            }
+            total += value;
+        }
+
+        return total;
+    }
+
+    private static boolean isLetter(byte b) {
+        int upper = b & 0xDF;
+        return upper >= 'A' && upper <= 'Z';
+    }
+
+    private static int chunkCount(long size) {
+        return Math.toIntExact((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    /**
+    *   Growable packed word list for one chunk.
+    */
+    private static class WordBuilder {
+
+        private byte[] letters = new byte[256];
+        private int letterCount;
+        private int[] offsets = new int[64];
+        private int[] values = new int[64];
+        private int wordCount;
+
+        void startWord() {
+            if (wordCount + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            offsets[wordCount] = letterCount;
+        }
+
+        void addLetter(byte letter) {
+            if (letterCount == letters.length) {
+                letters = Arrays.copyOf(letters, letters.length * 2);
+            }
+            letters[letterCount++] = letter;
+        }
+
+        void endWord(int value) {
+            values[wordCount++] = value;
+            offsets[wordCount] = letterCount;
+        }
+
+        static Words concat(WordBuilder[] chunks) {
+            long totalLetters = 0;
+            int totalWords = 0;
+            for (WordBuilder chunk : chunks) {
+                totalLetters += chunk.letterCount;
+                totalWords = Math.addExact(totalWords, chunk.wordCount);
+            }
+
+            byte[][] letters = SliceSort.allocatePages(totalLetters);
+            long[] offsets = new long[totalWords + 1];
+            int[] values = new int[totalWords];
+            long letterBase = 0;
+            int wordBase = 0;
+
+            for (WordBuilder chunk : chunks) {
+                SliceSort.copy(chunk.letters, chunk.letterCount, letters, letterBase);
+                System.arraycopy(chunk.values, 0, values, wordBase, chunk.wordCount);
+                for (int i = 0; i < chunk.wordCount; i++) {
+                    offsets[wordBase + i] = letterBase + chunk.offsets[i];
+                }
+                letterBase += chunk.letterCount;
+                wordBase += chunk.wordCount;
+            }
+            offsets[totalWords] = letterBase;
+
+            return new Words(letters, offsets, values);
+        }
+    }
+
+}